@@ -36,9 +36,8 @@ public class ControleurJeu {
         if (entiteSelectionnee == null || dir == null) return false;
 
         Position posActuelle = entiteSelectionnee.getPosition();
-        Position cible = new Position(posActuelle.getX() + dir.getDx(), posActuelle.getY() + dir.getDy());
-
         Grille grille = gestionnaire.getGrille();
+        Position cible = grille.voisine(posActuelle, dir);
         if (!ValidationMouvement.mouvementValide(entiteSelectionnee, cible, grille)) return false;
 
         boolean deplace = gestionnaire.jouerCoup(entiteSelectionnee, dir);
@@ -57,11 +56,11 @@ public class ControleurJeu {
     // --------------------
     public void gererClicCase(int x, int y) {
         Grille grille = gestionnaire.getGrille();
-        Position pos = new Position(x, y);
+        Position pos = grille.position(x, y);
         if (!grille.positionValide(pos)) return;
 
         if (entiteSelectionnee == null) {
-            Entite e = grille.getCase(pos).getEntite();
+            Entite e = grille.entiteA(grille.index(pos));
             if (e != null) gererSelectionEntite(e);
         } else {
             gererDeplacementVers(pos);
@@ -3,10 +3,15 @@ package controller;
 import java.util.ArrayList;
 import java.util.List;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import model.entites.Entite;
 import model.entites.Intrus;
-import model.entites.Robot;
+import model.entites.SacArgent;
 import model.terrain.Grille;
+import model.terrain.TypeCase;
+import model.terrain.Voisinage;
 import utils.Position;
 
 /**
@@ -14,6 +19,8 @@ import utils.Position;
  */
 public class ValidationMouvement {
 
+    private static final Logger LOG = LoggerFactory.getLogger(ValidationMouvement.class);
+
     /**
      * Vérifie si un mouvement est valide pour une entité
      * AJOUT : Bloque les intrus qui tentent d'aller près d'un robot
@@ -24,25 +31,23 @@ public class ValidationMouvement {
             return false;
         }
 
-        if (grille.getCase(pos).getEntite() instanceof model.entites.SacArgent) {
+        int index = grille.index(pos);
+        if (grille.entiteA(index) instanceof SacArgent) {
             return true;
         }
 
-        if (!caseAccessible(pos, grille, entite)) return false;
-
         if (!estAdjacent(entite.getPosition(), pos)) return false;
 
-        
-        // NOUVELLE RÈGLE : Si c'est un intrus, bloquer si un robot est adjacent à la destination
-        if (entite instanceof Intrus) {
-            if (robotAdjacentAPosition(pos, grille)) {
-                System.out.println("❌ MOUVEMENT BLOQUÉ : Un robot est adjacent à cette case !");
-                return false;
-            }
-        }
+        return regleCase(entite, index, grille);
+    }
 
-        
-        return true;
+    /**
+     * Coup réellement jouable vers une case voisine de l'entité, donnée par son index :
+     * mouvementValide, et la case est libre (deplacerEntite refuse une case occupée,
+     * sac compris, ou un obstacle). Sans allocation : c'est la règle des recherches de l'IA.
+     */
+    public static boolean coupJouable(Entite entite, int index, Grille grille) {
+        return grille.estLibre(index) && regleCase(entite, index, grille);
     }
 
     /**
@@ -57,23 +62,43 @@ public class ValidationMouvement {
      * Vérifie que la case n'est pas un obstacle et est libre
         */
     public static boolean caseAccessible(Position pos, Grille grille, Entite entite) {
-        Entite e = grille.getCase(pos).getEntite();
+        return caseAccessible(grille.index(pos), grille);
+    }
+
+    private static boolean caseAccessible(int index, Grille grille) {
+        Entite e = grille.entiteA(index);
 
-        if (e instanceof model.entites.SacArgent) {
+        if (e instanceof SacArgent) {
             return true;
         }
         if (e == null) {
             return true; // Case occupée
         }
-        if (grille.getSorties().contains(pos)) return true;
+        if (grille.typeA(index) == TypeCase.SORTIE) return true;
 
-        if (robotAdjacentAPosition(pos, grille)) {
+        if (robotAdjacentA(index, grille)) {
                 return false; // Bloquer la case si un robot est adjacent
             }
 
         return true;
     }
 
+    /**
+     * Règles propres à la case d'arrivée (adjacence et sac déjà traités)
+     */
+    private static boolean regleCase(Entite entite, int index, Grille grille) {
+        if (!caseAccessible(index, grille)) return false;
+
+        // NOUVELLE RÈGLE : Si c'est un intrus, bloquer si un robot est adjacent à la destination
+        if (entite instanceof Intrus) {
+            if (robotAdjacentA(index, grille)) {
+                if (LOG.isDebugEnabled()) LOG.debug("❌ MOUVEMENT BLOQUÉ : Un robot est adjacent à {}", grille.positionDe(index));
+                return false;
+            }
+        }
+
+        return true;
+    }
 
     /**
      * Vérifie que la position cible est adjacente (deltaX <=1 et deltaY <=1)
@@ -85,22 +110,15 @@ public class ValidationMouvement {
     }
     
     /**
-     * NOUVELLE MÉTHODE : Vérifie si un robot est adjacent à une position donnée
+     * NOUVELLE MÉTHODE : Vérifie si un robot est adjacent à une case donnée
+     * Lecture O(1) de la carte de couverture tenue à jour par la grille.
      * 
-     * @param pos La position à vérifier
+     * @param index La case à vérifier
      * @param grille La grille de jeu
      * @return true si au moins un robot vivant est adjacent
      */
-    private static boolean robotAdjacentAPosition(Position pos, Grille grille) {
-        List<Robot> robots = grille.getRobots();
-        
-        for (Robot robot : robots) {
-            if (robot.estVivant() && estAdjacent(pos, robot.getPosition())) {
-                return true;
-            }
-        }
-        
-        return false;
+    private static boolean robotAdjacentA(int index, Grille grille) {
+        return grille.getMenace(index) > 0;
     }
 
     /**
@@ -109,14 +127,14 @@ public class ValidationMouvement {
     public static List<Position> getPositionsAccessibles(Entite entite, Grille grille) {
         List<Position> positions = new ArrayList<>();
         Position current = entite.getPosition();
-    
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0) continue;
-                Position p = new Position(current.getX() + dx, current.getY() + dy);
-                if (mouvementValide(entite, p, grille)) {
-                    positions.add(p);
-                }
+        if (!positionDansGrille(current, grille)) return positions;
+
+        Voisinage voisinage = grille.getVoisinage();
+        int index = grille.index(current);
+        for (int k = 0; k < voisinage.nbVoisins8(index); k++) {
+            int cible = voisinage.voisin8(index, k);
+            if (grille.entiteA(cible) instanceof SacArgent || regleCase(entite, cible, grille)) {
+                positions.add(grille.positionDe(cible));
             }
         }
         return positions;
@@ -0,0 +1,404 @@
+package ia;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import controller.ValidationMouvement;
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.jeu.Annulation;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import model.terrain.DistancesSorties;
+import model.terrain.Grille;
+import model.terrain.Voisinage;
+import utils.Direction;
+import utils.Position;
+
+/**
+ * Recherche minimax (négamax) avec élagage alpha-beta, approfondissement itératif
+ * et budget de temps. Joue indifféremment les robots ou les intrus :
+ * le camp à jouer est toujours GestionnaireJeu.getTourActuel().
+ *
+ * La recherche se fait en place sur une copie de la partie (GestionnaireJeu.copier,
+ * une seule fois par coup) avec faireCoup / defaireCoup : aucune allocation de grille
+ * par nœud, et la partie réelle n'est jamais modifiée.
+ * Ordre des coups : meilleur coup de l'itération précédente (ou de la table de
+ * transposition), coups « killer » par profondeur, puis heuristique statique
+ * (captures, fuites, sacs).
+ *
+ * Les états sont identifiés par leur empreinte de Zobrist : table de transposition
+ * entre itérations, et détection des répétitions sur le chemin courant
+ * (une position déjà vue sur le chemin est évaluée statiquement, sans y replonger).
+ */
+public class AlphaBeta implements Strategie {
+
+    // Évaluation, du point de vue des robots
+    private static final int POIDS_CAPTURE = 100;
+    private static final int POIDS_EVASION = 100;
+    private static final int POIDS_SAC_VOLE = 60;
+    private static final int POIDS_SAC_PORTE = 30;
+    private static final int DISTANCE_MAX = 20;
+    private static final int VICTOIRE = 1_000_000;
+    private static final int SEUIL_VICTOIRE = VICTOIRE - 1000;
+
+    private long budgetNanos = 200_000_000L;
+    private int profondeurMax = 64;
+
+    // Mesures de la dernière recherche
+    private long noeuds;
+    private long dureeNanos;
+    private int profondeurAtteinte;
+    private int meilleurScore;
+
+    // Coups « killer » : deux par profondeur, codés entite * 9 + direction
+    private int[][] killers = new int[0][];
+
+    private TableTransposition table = new TableTransposition(18);
+
+    // Empreintes des positions du chemin courant (répétitions)
+    private long[] chemin = new long[0];
+
+    private long echeance;
+
+    /**
+     * Levée quand le budget est épuisé ; sans trace de pile, elle ne coûte presque rien.
+     */
+    private static final class TempsEcoule extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+
+        TempsEcoule() {
+            super(null, null, false, false);
+        }
+    }
+    private static final TempsEcoule TEMPS_ECOULE = new TempsEcoule();
+
+    // --------------------
+    // Choix du coup
+    // --------------------
+    @Override
+    public Coup choisirCoup(GestionnaireJeu gestionnaire) {
+        long debut = System.nanoTime();
+        echeance = debut + budgetNanos;
+        noeuds = 0;
+        profondeurAtteinte = 0;
+        killers = new int[profondeurMax + 1][2];
+        chemin = new long[profondeurMax + 2];
+        chemin[0] = gestionnaire.getHashZobrist();
+        table.nouvelleRecherche();
+
+        GestionnaireJeu partie = gestionnaire.copier();
+        List<Integer> coups = genererCoups(partie);
+        if (coups.isEmpty()) {
+            dureeNanos = System.nanoTime() - debut;
+            return null;
+        }
+        int meilleur = coups.get(0);
+        int tour = partie.getTourActuel();
+
+        // Approfondissement itératif : la dernière profondeur terminée fait foi
+        try {
+            for (int profondeur = 1; profondeur <= profondeurMax; profondeur++) {
+                ordonner(partie, coups, 0, meilleur);
+                int alpha = -VICTOIRE - 1, beta = VICTOIRE + 1;
+                int meilleurIci = coups.get(0);
+                for (int coup : coups) {
+                    Annulation annulation = faire(partie, coup);
+                    if (annulation == null) continue;
+                    int score;
+                    try {
+                        score = valeur(tour, partie, profondeur - 1, alpha, beta, 1);
+                    } finally {
+                        partie.defaireCoup(annulation);
+                    }
+                    if (score > alpha) {
+                        alpha = score;
+                        meilleurIci = coup;
+                    }
+                }
+                meilleur = meilleurIci;
+                meilleurScore = alpha;
+                profondeurAtteinte = profondeur;
+                if (Math.abs(alpha) >= SEUIL_VICTOIRE) break;   // fin de partie trouvée
+            }
+        } catch (TempsEcoule e) {
+            // On garde le meilleur coup de la dernière itération complète
+        }
+        dureeNanos = System.nanoTime() - debut;
+        return versCoup(gestionnaire, meilleur);
+    }
+
+    private int negamax(GestionnaireJeu partie, int profondeur, int alpha, int beta, int ply) {
+        if ((++noeuds & 255) == 0 && System.nanoTime() > echeance) throw TEMPS_ECOULE;
+
+        if (partie.getEtatActuel() != EtatJeu.EN_COURS || profondeur == 0) {
+            return signe(partie) * evaluer(partie, ply);
+        }
+
+        long hash = partie.getHashZobrist();
+        chemin[ply] = hash;
+        for (int p = ply - 1; p >= 0; p--) {
+            if (chemin[p] == hash) return signe(partie) * evaluer(partie, ply);   // répétition
+        }
+
+        // Table de transposition : coupure directe ou, au moins, un coup à essayer d'abord
+        int alphaInitial = alpha;
+        int coupTable = -1;
+        if (table.sonder(hash)) {
+            if (table.getCoup() != TableTransposition.AUCUN_COUP) coupTable = table.getCoup();
+            if (table.getProfondeur() >= profondeur) {
+                int score = depuisTable(table.getScore(), ply);
+                int borne = table.getBorne();
+                if (borne == TableTransposition.EXACTE) return score;
+                if (borne == TableTransposition.MINORANT) alpha = Math.max(alpha, score);
+                else if (borne == TableTransposition.MAJORANT) beta = Math.min(beta, score);
+                if (alpha >= beta) return score;
+            }
+        }
+
+        int tour = partie.getTourActuel();
+        List<Integer> coups = genererCoups(partie);
+        if (coups.isEmpty()) {
+            // Le camp passe son tour, comme dans la simulation
+            Annulation annulation = partie.passerTour();
+            try {
+                return valeur(tour, partie, profondeur - 1, alpha, beta, ply + 1);
+            } finally {
+                partie.defaireCoup(annulation);
+            }
+        }
+
+        ordonner(partie, coups, ply, coupTable);
+        int meilleur = -VICTOIRE - 1;
+        int meilleurCoup = TableTransposition.AUCUN_COUP;
+        for (int coup : coups) {
+            Annulation annulation = faire(partie, coup);
+            if (annulation == null) continue;
+            int score;
+            try {
+                score = valeur(tour, partie, profondeur - 1, alpha, beta, ply + 1);
+            } finally {
+                partie.defaireCoup(annulation);
+            }
+            if (score > meilleur) {
+                meilleur = score;
+                meilleurCoup = coup;
+            }
+            if (score > alpha) alpha = score;
+            if (alpha >= beta) {
+                enregistrerKiller(ply, coup);
+                break;
+            }
+        }
+
+        int borne = meilleur <= alphaInitial ? TableTransposition.MAJORANT
+                : meilleur >= beta ? TableTransposition.MINORANT
+                : TableTransposition.EXACTE;
+        table.enregistrer(hash, versTable(meilleur, ply), meilleurCoup, profondeur, borne);
+        return meilleur;
+    }
+
+    /**
+     * Les scores de fin de partie dépendent de la distance à la racine :
+     * on les stocke relativement au nœud, et on les replace au retour.
+     */
+    private static int versTable(int score, int ply) {
+        if (score > SEUIL_VICTOIRE) return score + ply;
+        if (score < -SEUIL_VICTOIRE) return score - ply;
+        return score;
+    }
+
+    private static int depuisTable(int score, int ply) {
+        if (score > SEUIL_VICTOIRE) return score - ply;
+        if (score < -SEUIL_VICTOIRE) return score + ply;
+        return score;
+    }
+
+    /**
+     * Valeur de la position (après le coup) vue par le camp qui avait le trait :
+     * on ne change de signe que si le trait a changé
+     * (une partie terminée garde le camp qui vient de jouer).
+     */
+    private int valeur(int tourParent, GestionnaireJeu partie, int profondeur, int alpha, int beta, int ply) {
+        if (partie.getTourActuel() == tourParent) {
+            return negamax(partie, profondeur, alpha, beta, ply);
+        }
+        return -negamax(partie, profondeur, -beta, -alpha, ply);
+    }
+
+    // --------------------
+    // Coups
+    // --------------------
+    /**
+     * Coups du camp à jouer : cases voisines retenues par ValidationMouvement.coupJouable
+     * (les règles de getPositionsAccessibles, sur les index, limitées aux cases libres :
+     * un sac y est « valide » mais deplacerEntite refuse la case occupée).
+     */
+    static List<Integer> genererCoups(GestionnaireJeu partie) {
+        Grille grille = partie.getGrille();
+        Voisinage voisinage = grille.getVoisinage();
+        List<? extends Entite> camp = camp(partie);
+        List<Integer> coups = new ArrayList<>();
+        for (int k = 0; k < camp.size(); k++) {
+            Entite e = camp.get(k);
+            if (!e.estVivant() || !grille.positionValide(e.getPosition())) continue;
+            Position pos = e.getPosition();
+            int index = grille.index(pos);
+            for (int v = 0; v < voisinage.nbVoisins8(index); v++) {
+                int cible = voisinage.voisin8(index, v);
+                if (!ValidationMouvement.coupJouable(e, cible, grille)) continue;
+                Position p = grille.positionDe(cible);
+                Direction dir = Direction.fromDelta(p.getX() - pos.getX(), p.getY() - pos.getY());
+                coups.add(k * 9 + dir.ordinal());
+            }
+        }
+        return coups;
+    }
+
+    static Annulation faire(GestionnaireJeu partie, int coup) {
+        Entite e = camp(partie).get(coup / 9);
+        return partie.faireCoup(e, Direction.values()[coup % 9]);
+    }
+
+    static Coup versCoup(GestionnaireJeu partie, int coup) {
+        return new Coup(camp(partie).get(coup / 9), Direction.values()[coup % 9]);
+    }
+
+    static List<? extends Entite> camp(GestionnaireJeu partie) {
+        Grille grille = partie.getGrille();
+        return partie.getTourActuel() == 1 ? grille.getRobots() : grille.getIntrus();
+    }
+
+    // --------------------
+    // Ordre des coups
+    // --------------------
+    /**
+     * Tri décroissant : coup prioritaire, killers, puis score statique.
+     */
+    private void ordonner(GestionnaireJeu partie, List<Integer> coups, int ply, int prioritaire) {
+        int n = coups.size();
+        long[] cles = new long[n];
+        for (int i = 0; i < n; i++) {
+            int coup = coups.get(i);
+            int score;
+            if (coup == prioritaire) score = 3_000_000;
+            else if (ply < killers.length && (coup == killers[ply][0] || coup == killers[ply][1])) score = 2_000_000;
+            else score = scoreStatique(partie, coup);
+            // Score dans les bits de poids fort, indice dans les bits faibles (tri stable)
+            cles[i] = ((long) -score << 32) | i;
+        }
+        Arrays.sort(cles);
+        List<Integer> tries = new ArrayList<>(n);
+        for (long cle : cles) tries.add(coups.get((int) cle));
+        coups.clear();
+        coups.addAll(tries);
+    }
+
+    /**
+     * Robots : se poser à côté d'un intrus, sinon s'en rapprocher.
+     * Intrus : atteindre une sortie, ramasser un sac, sinon s'approcher de la sortie.
+     */
+    static int scoreStatique(GestionnaireJeu partie, int coup) {
+        Grille grille = partie.getGrille();
+        Entite e = camp(partie).get(coup / 9);
+        Position cible = grille.voisine(e.getPosition(), Direction.values()[coup % 9]);
+        if (e instanceof Robot) {
+            if (!grille.getIntrusAdjacents(cible).isEmpty()) return 1_000_000;
+            return -distanceIntrus(grille, cible);
+        }
+        if (grille.estSortie(cible)) return 1_000_000;
+        int score = grille.getSacsAdjacents(cible).size() * 1000;
+        int d = grille.getDistanceSortie(cible);
+        return score - (d == DistancesSorties.INACCESSIBLE ? DISTANCE_MAX : Math.min(d, DISTANCE_MAX));
+    }
+
+    private void enregistrerKiller(int ply, int coup) {
+        if (ply >= killers.length || killers[ply][0] == coup) return;
+        killers[ply][1] = killers[ply][0];
+        killers[ply][0] = coup;
+    }
+
+    // --------------------
+    // Évaluation
+    // --------------------
+    static int signe(GestionnaireJeu partie) {
+        return partie.getTourActuel() == 1 ? 1 : -1;
+    }
+
+    /**
+     * Score du point de vue des robots : captures, évasions, sacs volés et portés,
+     * plus un terme de position (intrus loin des sorties et près des robots).
+     * Une partie terminée vaut ±VICTOIRE, d'autant plus que la fin est proche.
+     */
+    static int evaluer(GestionnaireJeu partie, int ply) {
+        Grille grille = partie.getGrille();
+        int score = POIDS_CAPTURE * partie.getIntrusCaptures()
+                - POIDS_EVASION * partie.getIntrusEchappes()
+                - POIDS_SAC_VOLE * partie.getSacsVoles();
+
+        if (partie.getEtatActuel() == EtatJeu.TERMINEE) {
+            int bilan = Integer.signum(score);
+            return bilan == 0 ? 0 : bilan * (VICTOIRE - ply);
+        }
+
+        for (Intrus i : grille.getIntrus()) {
+            if (!i.estVivant()) continue;
+            score -= POIDS_SAC_PORTE * i.getSacsPortes().size();
+            int d = grille.getDistanceSortie(i.getPosition());
+            score += d == DistancesSorties.INACCESSIBLE ? DISTANCE_MAX : Math.min(d, DISTANCE_MAX);
+            score -= distanceRobot(grille, i.getPosition());
+        }
+        return score;
+    }
+
+    private static int distanceIntrus(Grille grille, Position pos) {
+        int meilleure = DISTANCE_MAX;
+        for (Intrus i : grille.getIntrus()) {
+            meilleure = Math.min(meilleure, chebyshev(pos, i.getPosition()));
+        }
+        return meilleure;
+    }
+
+    private static int distanceRobot(Grille grille, Position pos) {
+        int meilleure = DISTANCE_MAX;
+        for (Robot r : grille.getRobots()) {
+            meilleure = Math.min(meilleure, chebyshev(pos, r.getPosition()));
+        }
+        return meilleure;
+    }
+
+    private static int chebyshev(Position a, Position b) {
+        return Math.max(Math.abs(a.getX() - b.getX()), Math.abs(a.getY() - b.getY()));
+    }
+
+    // --------------------
+    // Configuration et mesures
+    // --------------------
+    public void setBudgetMillis(long millis) {
+        this.budgetNanos = Math.max(1, millis) * 1_000_000L;
+    }
+
+    public void setProfondeurMax(int profondeur) {
+        this.profondeurMax = Math.max(1, Math.min(255, profondeur));
+    }
+
+    /**
+     * Taille de la table de transposition : 2^tailleLog2 entrées de 16 octets.
+     */
+    public void setTailleTable(int tailleLog2) {
+        this.table = new TableTransposition(tailleLog2);
+    }
+
+    public long getNoeuds() { return noeuds; }
+    public int getProfondeurAtteinte() { return profondeurAtteinte; }
+    public int getMeilleurScore() { return meilleurScore; }
+
+    /**
+     * Nœuds visités par seconde lors de la dernière recherche.
+     */
+    public double getNoeudsParSeconde() {
+        return dureeNanos == 0 ? 0.0 : noeuds * 1e9 / dureeNanos;
+    }
+}
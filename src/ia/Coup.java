@@ -0,0 +1,26 @@
+package ia;
+
+import model.entites.Entite;
+import utils.Direction;
+
+/**
+ * Un coup proposé par une stratégie : une entité et une direction.
+ */
+public final class Coup {
+
+    private final Entite entite;
+    private final Direction direction;
+
+    public Coup(Entite entite, Direction direction) {
+        this.entite = entite;
+        this.direction = direction;
+    }
+
+    public Entite getEntite() { return entite; }
+    public Direction getDirection() { return direction; }
+
+    @Override
+    public String toString() {
+        return entite.getClass().getSimpleName() + " " + entite.getPosition() + " -> " + direction;
+    }
+}
@@ -0,0 +1,268 @@
+package ia;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+
+import controller.ValidationMouvement;
+import model.entites.Intrus;
+import model.entites.SacArgent;
+import model.jeu.GestionnaireJeu;
+import model.terrain.DistancesSorties;
+import model.terrain.Grille;
+import utils.Direction;
+import utils.Position;
+
+/**
+ * Stratégie automatique du camp des intrus.
+ *
+ * Chaque intrus planifie avec A* (8 directions) vers un sac ou une sortie,
+ * sur les cases libres non couvertes par un robot : exactement les coups
+ * acceptés par ValidationMouvement.mouvementValide puis Grille.deplacerEntite.
+ * Un sac se ramasse en arrivant à côté de lui ; une sortie en marchant dessus.
+ *
+ * Les plans sont gardés en cache et ne sont recalculés que si une case
+ * du chemin restant est bloquée, si la cible disparaît, ou si l'intrus
+ * change d'objectif (sac ramassé, sac rendu au sol).
+ */
+public class IAIntrus implements Strategie {
+
+    private final Grille grille;
+    private final RechercheChemin recherche;
+    private final Map<Intrus, Plan> plans = new IdentityHashMap<>();
+
+    // Sacs au sol (positions), relevés avant chaque recherche vers un sac
+    private int[] sacsX = new int[8];
+    private int[] sacsY = new int[8];
+    private int nbSacsAuSol;
+
+    private int recalculs;
+
+    /**
+     * Chemin planifié pour un intrus.
+     */
+    private static final class Plan {
+        int depart;          // case de l'intrus au moment du calcul
+        int[] chemin;        // cases à parcourir (départ exclu)
+        int etape;           // prochaine case à jouer
+        boolean versSac;     // cible : sac (sinon sortie)
+        int signature;       // sacs portés et sacs au sol au moment du calcul
+    }
+
+    public IAIntrus(Grille grille) {
+        this.grille = grille;
+        this.recherche = new RechercheChemin(grille);
+    }
+
+    // --------------------
+    // Choix du coup
+    // --------------------
+    /**
+     * Joue l'intrus dont le plan est le plus court ; à défaut, le coup légal
+     * qui rapproche le plus d'une sortie.
+     */
+    @Override
+    public Coup choisirCoup(GestionnaireJeu gestionnaire) {
+        List<Intrus> intrus = grille.getIntrus();
+        int signatureSacs = compterSacsAuSol();
+
+        Intrus meilleur = null;
+        int meilleurReste = Integer.MAX_VALUE;
+        for (Intrus i : intrus) {
+            if (!i.estVivant()) continue;
+            Plan plan = planPour(i, signatureSacs);
+            if (plan == null) continue;
+            int reste = plan.chemin.length - plan.etape;
+            if (reste < meilleurReste) {
+                meilleur = i;
+                meilleurReste = reste;
+            }
+        }
+
+        if (meilleur != null) {
+            Plan plan = plans.get(meilleur);
+            Position cible = grille.positionDe(plan.chemin[plan.etape]);
+            if (ValidationMouvement.mouvementValide(meilleur, cible, grille)) {
+                plan.etape++;
+                return coupVers(meilleur, cible);
+            }
+            plans.remove(meilleur);
+        }
+        return coupDeSecours(intrus);
+    }
+
+    /**
+     * Chemin que l'intrus devrait suivre (cases restantes, position actuelle exclue),
+     * vide s'il est bloqué. Sert aux robots pour anticiper ses déplacements.
+     */
+    int[] predireChemin(Intrus intrus) {
+        Plan plan = planPour(intrus, compterSacsAuSol());
+        if (plan == null) return new int[0];
+        return Arrays.copyOfRange(plan.chemin, plan.etape, plan.chemin.length);
+    }
+
+    /**
+     * Nombre de recherches A* effectuées depuis la création (pour mesurer le cache).
+     */
+    public int getRecalculs() {
+        return recalculs;
+    }
+
+    // --------------------
+    // Plans
+    // --------------------
+    /**
+     * Plan valide pour l'intrus (recalculé si besoin), ou null s'il est bloqué.
+     */
+    private Plan planPour(Intrus intrus, int signatureSacs) {
+        int signature = intrus.getSacsPortes().size() * 1024 + signatureSacs;
+        Plan plan = plans.get(intrus);
+        if (plan != null) resynchroniser(intrus, plan);
+        if (plan != null && plan.signature == signature && estEncoreValide(intrus, plan)) {
+            return plan;
+        }
+        plan = planifier(intrus, signature);
+        if (plan == null) plans.remove(intrus);
+        else plans.put(intrus, plan);
+        return plan;
+    }
+
+    /**
+     * Avance l'étape si l'intrus a suivi son chemin sans passer par cette stratégie
+     * (coups joués par un humain, ou prédiction faite par l'adversaire).
+     */
+    private void resynchroniser(Intrus intrus, Plan plan) {
+        int pos = grille.index(intrus.getPosition());
+        for (int i = plan.etape; i < plan.chemin.length; i++) {
+            if (plan.chemin[i] == pos) {
+                plan.etape = i + 1;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Le plan est valide si l'intrus est bien au départ du reste du chemin,
+     * si toutes les cases restantes sont encore franchissables et si la cible existe encore.
+     */
+    private boolean estEncoreValide(Intrus intrus, Plan plan) {
+        if (plan.etape >= plan.chemin.length) return false;
+        int attendu = plan.etape == 0 ? plan.depart : plan.chemin[plan.etape - 1];
+        if (attendu != grille.index(intrus.getPosition())) return false;
+
+        for (int i = plan.etape; i < plan.chemin.length; i++) {
+            if (!franchissable(plan.chemin[i])) return false;
+        }
+        Position arrivee = grille.positionDe(plan.chemin[plan.chemin.length - 1]);
+        return plan.versSac ? !grille.getSacsAdjacents(arrivee).isEmpty() : grille.estSortie(arrivee);
+    }
+
+    /**
+     * Choisit l'objectif : un sac tant que l'intrus a de la place et qu'un sac
+     * est accessible (sauf s'il porte déjà un sac et que la sortie est plus proche),
+     * sinon la sortie la plus proche.
+     */
+    private Plan planifier(Intrus intrus, int signature) {
+        int depart = grille.index(intrus.getPosition());
+
+        int[] versSortie = chercherSortie(depart);
+        int[] versSac = null;
+        if (intrus.peutRamasserSac() && nbSacsAuSol > 0) {
+            versSac = chercherSac(depart);
+        }
+
+        boolean choisirSac = versSac != null
+                && (versSortie == null || intrus.getSacsPortes().isEmpty() || versSac.length < versSortie.length);
+        int[] chemin = choisirSac ? versSac : versSortie;
+        if (chemin == null) return null;
+
+        Plan plan = new Plan();
+        plan.depart = depart;
+        plan.chemin = chemin;
+        plan.versSac = choisirSac;
+        plan.signature = signature;
+        return plan;
+    }
+
+    private int[] chercherSortie(int depart) {
+        recalculs++;
+        // Le champ de distances ignore entités et robots : heuristique exacte sur terrain vide, donc admissible
+        DistancesSorties distances = grille.getDistancesSorties();
+        return recherche.chercher(depart, this::franchissable, i -> {
+            int d = distances.distance(i);
+            return d == DistancesSorties.INACCESSIBLE ? RechercheChemin.INACCESSIBLE : d;
+        });
+    }
+
+    private int[] chercherSac(int depart) {
+        recalculs++;
+        int nbColonnes = grille.getNbColonnes();
+        return recherche.chercher(depart, this::franchissable, i -> {
+            // Distance de Chebyshev jusqu'à une case voisine du sac le plus proche
+            int x = i / nbColonnes, y = i % nbColonnes;
+            int meilleur = Integer.MAX_VALUE;
+            for (int s = 0; s < nbSacsAuSol; s++) {
+                int d = Math.max(Math.abs(x - sacsX[s]), Math.abs(y - sacsY[s])) - 1;
+                if (d < meilleur) meilleur = d;
+            }
+            return Math.max(0, meilleur);
+        });
+    }
+
+    /**
+     * Case sur laquelle un intrus peut se poser : libre et hors de portée des robots.
+     */
+    private boolean franchissable(int index) {
+        return grille.estLibre(index) && grille.getMenace(index) == 0;
+    }
+
+    /**
+     * Relève les sacs au sol et retourne leur nombre.
+     */
+    private int compterSacsAuSol() {
+        nbSacsAuSol = 0;
+        for (SacArgent sac : grille.getSacs()) {
+            if (sac.estRamasse() || !grille.positionValide(sac.getPosition())) continue;
+            if (nbSacsAuSol == sacsX.length) {
+                sacsX = Arrays.copyOf(sacsX, nbSacsAuSol * 2);
+                sacsY = Arrays.copyOf(sacsY, nbSacsAuSol * 2);
+            }
+            sacsX[nbSacsAuSol] = sac.getPosition().getX();
+            sacsY[nbSacsAuSol] = sac.getPosition().getY();
+            nbSacsAuSol++;
+        }
+        return nbSacsAuSol;
+    }
+
+    // --------------------
+    // Repli
+    // --------------------
+    /**
+     * Aucun plan : coup légal qui minimise la distance à la sortie.
+     */
+    private Coup coupDeSecours(List<Intrus> intrus) {
+        Intrus choisi = null;
+        Position cible = null;
+        int meilleure = Integer.MAX_VALUE;
+        for (Intrus i : intrus) {
+            if (!i.estVivant()) continue;
+            for (Position p : ValidationMouvement.getPositionsAccessibles(i, grille)) {
+                if (!grille.caseEstLibre(p)) continue;
+                int d = grille.getDistanceSortie(p);
+                if (cible == null || d < meilleure) {
+                    choisi = i;
+                    cible = p;
+                    meilleure = d;
+                }
+            }
+        }
+        return cible == null ? null : coupVers(choisi, cible);
+    }
+
+    private Coup coupVers(Intrus intrus, Position cible) {
+        Position pos = intrus.getPosition();
+        Direction dir = Direction.fromDelta(cible.getX() - pos.getX(), cible.getY() - pos.getY());
+        return new Coup(intrus, dir);
+    }
+}
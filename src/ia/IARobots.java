@@ -0,0 +1,467 @@
+package ia;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import controller.ValidationMouvement;
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import model.terrain.TypeCase;
+import model.terrain.Voisinage;
+import utils.Direction;
+import utils.Position;
+
+/**
+ * Stratégie automatique du camp des robots.
+ *
+ * 1. Capture immédiate si un robot peut se poser à côté d'un intrus.
+ * 2. Affectation robots -> intrus par enchères (Bertsekas) sur la distance de chemin.
+ *    L'affectation est conservée d'un tour à l'autre ; quand quelque chose a bougé,
+ *    les prix repartent de zéro et l'enchère (epsilon décroissant) part de l'affectation
+ *    précédente : seules les paires qui ne sont plus quasi optimales (ou dont un membre
+ *    a disparu) sont remises en jeu. Le camp le moins nombreux enchérit ;
+ *    les robots en surnombre poursuivent l'intrus le plus proche.
+ * 3. Chaque robot vise un point d'interception sur le chemin prévu de son intrus
+ *    (vers un sac ou une sortie, prédit avec IAIntrus) et s'y rend avec A*.
+ *
+ * Les distances robot -> intrus sont lues dans un champ BFS par intrus (terrain seul),
+ * recalculé uniquement quand cet intrus bouge : le coût par tour ne grandit pas
+ * avec le nombre de robots.
+ */
+public class IARobots implements Strategie {
+
+    private final Grille grille;
+    private final Voisinage voisinage;
+    private final RechercheChemin recherche;
+    private final IAIntrus adversaire;   // modèle des intrus, pour prédire leurs chemins
+
+    // Champ de distances (8 directions, obstacles seuls) depuis chaque intrus
+    private final Map<Intrus, Champ> champs = new IdentityHashMap<>();
+    private final int[] file;
+
+    // Enchères : affectation conservée entre les tours (point de départ de la suivante)
+    private final Map<Robot, Intrus> affectations = new IdentityHashMap<>();
+
+    // Cases vues à la dernière mise à jour des affectations (quelque chose a-t-il bougé ?)
+    private final Map<Robot, Integer> casesRobots = new IdentityHashMap<>();
+    private final Map<Intrus, Integer> casesIntrus = new IdentityHashMap<>();
+    private long echelleVue;
+
+    // Chemins de poursuite en cache
+    private final Map<Robot, Poursuite> poursuites = new IdentityHashMap<>();
+
+    private int encheres;
+    private int recalculs;
+
+    private static final class Champ {
+        int source = -1;
+        int[] distances;
+    }
+
+    private static final class Poursuite {
+        int cible;      // case à rejoindre (se poser à côté)
+        int depart;
+        int[] chemin;
+        int etape;
+    }
+
+    public IARobots(Grille grille) {
+        this.grille = grille;
+        this.voisinage = grille.getVoisinage();
+        this.recherche = new RechercheChemin(grille);
+        this.adversaire = new IAIntrus(grille);
+        this.file = new int[grille.getNbLignes() * grille.getNbColonnes()];
+    }
+
+    // --------------------
+    // Choix du coup
+    // --------------------
+    @Override
+    public Coup choisirCoup(GestionnaireJeu gestionnaire) {
+        List<Robot> robots = grille.getRobots();
+        if (robots.isEmpty()) return null;
+
+        Coup capture = chercherCapture(robots);
+        if (capture != null) return capture;
+
+        List<Intrus> intrus = vivants();
+        if (intrus.isEmpty()) return null;
+        mettreAJourAffectations(robots, intrus);
+
+        // Le robot qui joue : celui dont l'intrus est le plus près de son but
+        List<Robot> ordre = new ArrayList<>(robots);
+        Map<Robot, int[]> predictions = new IdentityHashMap<>();
+        Map<Intrus, int[]> cheminsIntrus = new IdentityHashMap<>();
+        for (Robot r : ordre) {
+            Intrus cible = cibleDe(r, intrus);
+            if (cible == null) continue;
+            predictions.put(r, cheminsIntrus.computeIfAbsent(cible, adversaire::predireChemin));
+        }
+        ordre.removeIf(r -> !predictions.containsKey(r));
+        ordre.sort((a, b) -> Integer.compare(urgence(predictions.get(a)), urgence(predictions.get(b))));
+
+        for (Robot r : ordre) {
+            Intrus cible = cibleDe(r, intrus);
+            int point = pointInterception(r, cible, predictions.get(r));
+            Position pas = prochainPas(r, point, cible);
+            if (pas != null) return coupVers(r, pas);
+        }
+        return null;
+    }
+
+    /**
+     * Nombre d'enchères et de recherches A* depuis la création (mesure du coût incrémental).
+     */
+    public int getEncheres() { return encheres; }
+    public int getRecalculs() { return recalculs; }
+
+    /**
+     * Intrus affecté au robot ; les robots sans affectation suivent l'intrus le plus proche.
+     */
+    public Intrus getAffectation(Robot robot) {
+        return affectations.get(robot);
+    }
+
+    // --------------------
+    // Capture immédiate
+    // --------------------
+    /**
+     * Un déplacement vers une case voisine d'un intrus le capture (Grille.deplacerEntite).
+     */
+    private Coup chercherCapture(List<Robot> robots) {
+        for (Robot r : robots) {
+            int depart = grille.index(r.getPosition());
+            for (int k = 0; k < voisinage.nbVoisins8(depart); k++) {
+                int c = voisinage.voisin8(depart, k);
+                if (!grille.estLibre(c) || !toucheIntrus(c)) continue;
+                Position p = grille.positionDe(c);
+                if (ValidationMouvement.mouvementValide(r, p, grille)) return coupVers(r, p);
+            }
+        }
+        return null;
+    }
+
+    private boolean toucheIntrus(int index) {
+        for (int k = 0; k < voisinage.nbVoisins8(index); k++) {
+            if (grille.entiteA(voisinage.voisin8(index, k)) instanceof Intrus) return true;
+        }
+        return false;
+    }
+
+    // --------------------
+    // Affectation par enchères
+    // --------------------
+    /**
+     * Met à jour l'affectation existante au lieu de la reconstruire :
+     * retire les paires mortes ; si rien n'a bougé depuis le tour précédent, elle reste valable.
+     * Sinon les valeurs ont changé : l'enchère repart de prix nuls, par epsilon décroissant
+     * (epsilon-scaling), en partant de l'affectation précédente. À chaque phase, seuls les
+     * enchérisseurs libres, ou qui ne sont plus à epsilon de leur meilleur choix, enchérissent.
+     *
+     * Enchérit le camp le moins nombreux (les robots, ou les intrus s'il y a plus de robots) :
+     * pas de surenchère pour départager les robots en surnombre.
+     */
+    private void mettreAJourAffectations(List<Robot> robots, List<Intrus> intrus) {
+        long echelle = Math.min(robots.size(), intrus.size()) + 1L;   // avec epsilon = 1, l'affectation est optimale
+
+        Set<Robot> enJeu = Collections.newSetFromMap(new IdentityHashMap<>());
+        enJeu.addAll(robots);
+        Set<Intrus> presents = Collections.newSetFromMap(new IdentityHashMap<>());
+        presents.addAll(intrus);
+
+        // Paires dont un membre a disparu
+        boolean change = affectations.entrySet().removeIf(
+                e -> !enJeu.contains(e.getKey()) || !presents.contains(e.getValue()));
+        champs.keySet().retainAll(presents);
+        casesIntrus.keySet().retainAll(presents);
+        casesRobots.keySet().retainAll(enJeu);
+        poursuites.keySet().retainAll(enJeu);
+
+        // Ce qui a bougé (ou est nouveau) depuis la dernière mise à jour
+        for (Intrus i : intrus) {
+            int c = grille.index(i.getPosition());
+            Integer avant = casesIntrus.put(i, c);
+            if (avant == null || avant != c) change = true;
+        }
+        for (Robot r : robots) {
+            int c = grille.index(r.getPosition());
+            Integer avant = casesRobots.put(r, c);
+            if (avant == null || avant != c) change = true;
+        }
+        // Les valeurs dépendent aussi de l'échelle
+        if (echelle != echelleVue) change = true;
+        echelleVue = echelle;
+        if (!change) return;
+
+        // Valeurs (personne = camp qui enchérit, objet = l'autre camp) ; Long.MIN_VALUE si inaccessible
+        boolean robotsEncherissent = robots.size() <= intrus.size();
+        int nbPersonnes = robotsEncherissent ? robots.size() : intrus.size();
+        int nbObjets = robotsEncherissent ? intrus.size() : robots.size();
+        long[][] valeurs = new long[nbPersonnes][nbObjets];
+        for (int p = 0; p < nbPersonnes; p++) {
+            for (int o = 0; o < nbObjets; o++) {
+                Robot r = robots.get(robotsEncherissent ? p : o);
+                Intrus i = intrus.get(robotsEncherissent ? o : p);
+                int d = distance(r, i);
+                valeurs[p][o] = d == Integer.MAX_VALUE ? Long.MIN_VALUE : (long) (file.length - d) * echelle;
+            }
+        }
+
+        // Point de départ : l'affectation précédente
+        int[] objetDe = new int[nbPersonnes];
+        int[] personneDe = new int[nbObjets];
+        Arrays.fill(objetDe, -1);
+        Arrays.fill(personneDe, -1);
+        Map<Entite, Integer> rangs = new IdentityHashMap<>();
+        for (int k = 0; k < robots.size(); k++) rangs.put(robots.get(k), k);
+        for (int k = 0; k < intrus.size(); k++) rangs.put(intrus.get(k), k);
+        for (Map.Entry<Robot, Intrus> e : affectations.entrySet()) {
+            int p = rangs.get(robotsEncherissent ? e.getKey() : e.getValue());
+            int o = rangs.get(robotsEncherissent ? e.getValue() : e.getKey());
+            objetDe[p] = o;
+            personneDe[o] = p;
+        }
+
+        // Des prix gardés d'un tour à l'autre ne feraient que monter : on repart de zéro
+        long[] prix = new long[nbObjets];
+        long epsilon = Math.max(1L, file.length * echelle / 8);
+        while (true) {
+            encherir(valeurs, prix, objetDe, personneDe, epsilon);
+            if (epsilon == 1) break;
+            epsilon = Math.max(1L, epsilon / 4);
+        }
+
+        affectations.clear();
+        for (int p = 0; p < nbPersonnes; p++) {
+            if (objetDe[p] < 0) continue;
+            Robot r = robots.get(robotsEncherissent ? p : objetDe[p]);
+            Intrus i = intrus.get(robotsEncherissent ? objetDe[p] : p);
+            affectations.put(r, i);
+        }
+    }
+
+    /**
+     * Une phase d'enchères à epsilon donné : libère les personnes qui ne respectent plus
+     * l'epsilon-optimalité, puis fait enchérir les personnes libres jusqu'à stabilité.
+     * Rester libre vaut 0 : une personne dont tous les objets accessibles sont tenus
+     * à un prix supérieur à leur valeur reste libre (elle suivra l'intrus le plus proche).
+     */
+    private void encherir(long[][] valeurs, long[] prix, int[] objetDe, int[] personneDe, long epsilon) {
+        // Libérer, puis remettre à zéro le prix des objets sans preneur (ce qui peut
+        // à nouveau libérer quelqu'un) : un objet libre reste toujours au prix le plus bas
+        boolean libere = true;
+        while (libere) {
+            libere = false;
+            for (int o = 0; o < personneDe.length; o++) {
+                if (personneDe[o] < 0) prix[o] = 0;
+            }
+            for (int p = 0; p < objetDe.length; p++) {
+                int actuel = objetDe[p];
+                if (actuel >= 0 && valeurs[p][actuel] - prix[actuel] < Math.max(meilleurGain(valeurs[p], prix), 0) - epsilon) {
+                    objetDe[p] = -1;
+                    personneDe[actuel] = -1;
+                    libere = true;
+                }
+            }
+        }
+        ArrayDeque<Integer> encherisseurs = new ArrayDeque<>();
+        for (int p = 0; p < objetDe.length; p++) {
+            if (objetDe[p] < 0) encherisseurs.add(p);
+        }
+
+        int limite = 64 * (objetDe.length + 1) * (personneDe.length + 1);
+        while (!encherisseurs.isEmpty() && limite-- > 0) {
+            int p = encherisseurs.poll();
+            int choix = -1;
+            long premier = Long.MIN_VALUE, second = 0;
+            for (int o = 0; o < personneDe.length; o++) {
+                if (valeurs[p][o] == Long.MIN_VALUE) continue;
+                long net = valeurs[p][o] - prix[o];
+                if (net > premier) {
+                    second = Math.max(second, premier);
+                    premier = net;
+                    choix = o;
+                } else if (net > second) {
+                    second = net;
+                }
+            }
+            if (choix == -1 || premier < 0) continue;   // reste libre
+
+            encheres++;
+            prix[choix] += premier - second + epsilon;
+            int ancien = personneDe[choix];
+            personneDe[choix] = p;
+            objetDe[p] = choix;
+            if (ancien >= 0) {
+                objetDe[ancien] = -1;
+                encherisseurs.add(ancien);
+            }
+        }
+    }
+
+    private static long meilleurGain(long[] valeurs, long[] prix) {
+        long meilleur = Long.MIN_VALUE;
+        for (int o = 0; o < valeurs.length; o++) {
+            if (valeurs[o] != Long.MIN_VALUE) meilleur = Math.max(meilleur, valeurs[o] - prix[o]);
+        }
+        return meilleur;
+    }
+
+    /**
+     * Cible du robot : son affectation, sinon l'intrus le plus proche.
+     */
+    private Intrus cibleDe(Robot r, List<Intrus> intrus) {
+        Intrus cible = affectations.get(r);
+        if (cible != null) return cible;
+        int meilleure = Integer.MAX_VALUE;
+        for (Intrus i : intrus) {
+            int d = distance(r, i);
+            if (d < meilleure) {
+                meilleure = d;
+                cible = i;
+            }
+        }
+        return cible;
+    }
+
+    // --------------------
+    // Distances (champ BFS par intrus)
+    // --------------------
+    private int distance(Robot r, Intrus i) {
+        return champ(i)[grille.index(r.getPosition())];
+    }
+
+    private int[] champ(Intrus i) {
+        Champ champ = champs.computeIfAbsent(i, k -> new Champ());
+        int source = grille.index(i.getPosition());
+        if (champ.source != source) {
+            if (champ.distances == null) champ.distances = new int[file.length];
+            remplirChamp(source, champ.distances);
+            champ.source = source;
+        }
+        return champ.distances;
+    }
+
+    private void remplirChamp(int source, int[] distances) {
+        Arrays.fill(distances, Integer.MAX_VALUE);
+        distances[source] = 0;
+        int tete = 0, queue = 0;
+        file[queue++] = source;
+        while (tete < queue) {
+            int u = file[tete++];
+            int du = distances[u] + 1;
+            for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                int v = voisinage.voisin8(u, k);
+                if (du < distances[v] && grille.typeA(v) != TypeCase.OBSTACLE) {
+                    distances[v] = du;
+                    file[queue++] = v;
+                }
+            }
+        }
+    }
+
+    // --------------------
+    // Interception
+    // --------------------
+    private static int urgence(int[] cheminIntrus) {
+        return cheminIntrus.length == 0 ? Integer.MAX_VALUE : cheminIntrus.length;
+    }
+
+    /**
+     * Première case du chemin prévu de l'intrus que le robot peut atteindre à temps
+     * (borne de Chebyshev) ; à défaut, le but de l'intrus ; s'il est bloqué, l'intrus lui-même.
+     */
+    private int pointInterception(Robot r, Intrus i, int[] cheminIntrus) {
+        if (cheminIntrus.length == 0) return grille.index(i.getPosition());
+        int depart = grille.index(r.getPosition());
+        for (int k = 0; k < cheminIntrus.length; k++) {
+            if (chebyshev(depart, cheminIntrus[k]) - 1 <= k + 1) return cheminIntrus[k];
+        }
+        return cheminIntrus[cheminIntrus.length - 1];
+    }
+
+    /**
+     * Prochaine case du chemin vers le voisinage de la cible (plan en cache si toujours valide).
+     * Repli : la case voisine la plus proche de l'intrus dans son champ de distances.
+     */
+    private Position prochainPas(Robot r, int cible, Intrus intrus) {
+        int pos = grille.index(r.getPosition());
+        Poursuite p = poursuites.get(r);
+        if (p == null || p.cible != cible || !estEncoreValide(p, pos)) {
+            p = planifier(pos, cible);
+            if (p == null) poursuites.remove(r);
+            else poursuites.put(r, p);
+        }
+        if (p != null) {
+            Position pas = grille.positionDe(p.chemin[p.etape]);
+            if (ValidationMouvement.mouvementValide(r, pas, grille)) {
+                p.etape++;
+                return pas;
+            }
+            poursuites.remove(r);
+        }
+
+        int[] distances = champ(intrus);
+        int meilleur = -1;
+        for (int k = 0; k < voisinage.nbVoisins8(pos); k++) {
+            int c = voisinage.voisin8(pos, k);
+            if (grille.estLibre(c) && (meilleur == -1 || distances[c] < distances[meilleur])) meilleur = c;
+        }
+        if (meilleur == -1 || distances[meilleur] >= distances[pos]) return null;
+        Position pas = grille.positionDe(meilleur);
+        return ValidationMouvement.mouvementValide(r, pas, grille) ? pas : null;
+    }
+
+    private boolean estEncoreValide(Poursuite p, int pos) {
+        if (p.etape >= p.chemin.length) return false;
+        int attendu = p.etape == 0 ? p.depart : p.chemin[p.etape - 1];
+        if (attendu != pos) return false;
+        for (int i = p.etape; i < p.chemin.length; i++) {
+            if (!grille.estLibre(p.chemin[i])) return false;
+        }
+        return true;
+    }
+
+    private Poursuite planifier(int depart, int cible) {
+        recalculs++;
+        int[] chemin = recherche.chercher(depart, grille::estLibre,
+                i -> Math.max(0, chebyshev(i, cible) - 1));
+        if (chemin == null || chemin.length == 0) return null;
+        Poursuite p = new Poursuite();
+        p.cible = cible;
+        p.depart = depart;
+        p.chemin = chemin;
+        return p;
+    }
+
+    private int chebyshev(int a, int b) {
+        int nbColonnes = grille.getNbColonnes();
+        return Math.max(Math.abs(a / nbColonnes - b / nbColonnes), Math.abs(a % nbColonnes - b % nbColonnes));
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private List<Intrus> vivants() {
+        List<Intrus> liste = new ArrayList<>();
+        for (Intrus i : grille.getIntrus()) {
+            if (i.estVivant() && grille.positionValide(i.getPosition())) liste.add(i);
+        }
+        return liste;
+    }
+
+    private Coup coupVers(Entite entite, Position cible) {
+        Position pos = entite.getPosition();
+        Direction dir = Direction.fromDelta(cible.getX() - pos.getX(), cible.getY() - pos.getY());
+        return new Coup(entite, dir);
+    }
+}
@@ -0,0 +1,397 @@
+package ia;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import model.jeu.Annulation;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+
+/**
+ * Recherche arborescente de Monte-Carlo (UCT). Joue indifféremment les robots ou les intrus,
+ * comme AlphaBeta : le camp à jouer est GestionnaireJeu.getTourActuel().
+ *
+ * Chaque fil travaille sur sa propre copie de la partie (GestionnaireJeu.copier, une fois
+ * par coup) : descente dans l'arbre, simulation, puis retour à la racine par defaireCoup.
+ * Deux modes parallèles :
+ * - RACINE : un arbre par fil, les visites des coups de la racine sont additionnées à la fin ;
+ * - ARBRE : un seul arbre partagé, sans verrou pour la sélection ; une « perte virtuelle »
+ *   pénalise le chemin en cours de simulation pour que les fils se répartissent.
+ *
+ * Les simulations suivent une politique rapide : deux coups tirés au hasard,
+ * on garde le meilleur selon l'heuristique statique d'AlphaBeta.
+ * Le budget est un temps (setBudgetMillis) ou un nombre de simulations (setNbSimulations).
+ */
+public class MonteCarlo implements Strategie {
+
+    public enum Parallelisme { RACINE, ARBRE }
+
+    // Coup « passer son tour » quand le camp n'a aucun déplacement
+    private static final int PASSE = -1;
+
+    // Récompenses en millièmes (compteur entier atomique)
+    private static final int ECHELLE_RECOMPENSE = 1000;
+    // Écart d'évaluation (AlphaBeta.evaluer) qui vaut environ 76 % de victoire
+    private static final double ECHELLE_EVALUATION = 100.0;
+    private static final int PERTE_VIRTUELLE = 3;
+
+    private long budgetNanos = 200_000_000L;
+    private long nbSimulationsMax;
+    private int profondeurSimulation = 40;
+    private double exploration = Math.sqrt(2);
+    private int nbFils = 1;
+    private Parallelisme mode = Parallelisme.ARBRE;
+    private long graine = System.nanoTime();
+
+    // Mesures de la dernière recherche
+    private long simulations;
+    private long dureeNanos;
+    private double tauxMeilleurCoup;
+
+    // --------------------
+    // Arbre
+    // --------------------
+    /**
+     * Nœud de l'arbre. Les statistiques sont vues du camp qui a joué le coup menant au nœud.
+     * Les enfants sont publiés par nbEnfants (volatile) : un fil qui lit nbEnfants
+     * voit les enfants déjà ajoutés, sans verrou.
+     */
+    private static final class Noeud {
+        final int coup;
+        final int tour;
+        final AtomicInteger visites = new AtomicInteger();
+        final AtomicLong gains = new AtomicLong();
+
+        private int[] coups;            // coups à développer, dans l'ordre heuristique
+        private Noeud[] enfants;
+        private volatile int nbEnfants;
+
+        Noeud(int coup, int tour) {
+            this.coup = coup;
+            this.tour = tour;
+        }
+
+        /**
+         * Ajoute le prochain coup non essayé, ou renvoie null si tous le sont déjà.
+         * Les coups sont générés au premier passage, dans l'état courant de la partie.
+         */
+        synchronized Noeud developper(GestionnaireJeu partie) {
+            if (coups == null) {
+                List<Integer> liste = AlphaBeta.genererCoups(partie);
+                coups = new int[Math.max(1, liste.size())];
+                if (liste.isEmpty()) {
+                    coups[0] = PASSE;
+                } else {
+                    ordonner(partie, liste, coups);
+                }
+                enfants = new Noeud[coups.length];
+            }
+            int n = nbEnfants;
+            if (n == coups.length) return null;
+            Noeud enfant = new Noeud(coups[n], partie.getTourActuel());
+            enfants[n] = enfant;
+            nbEnfants = n + 1;
+            return enfant;
+        }
+
+        /**
+         * Enfant qui maximise UCB1 ; les visites incluent les pertes virtuelles en cours.
+         */
+        Noeud selectionner(double exploration) {
+            int n = nbEnfants;
+            Noeud[] tab = enfants;
+            double logParent = Math.log(Math.max(1, visites.get()));
+            Noeud meilleur = null;
+            double meilleureValeur = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                Noeud e = tab[i];
+                int v = Math.max(1, e.visites.get());
+                double valeur = (double) e.gains.get() / ECHELLE_RECOMPENSE / v
+                        + exploration * Math.sqrt(logParent / v);
+                if (valeur > meilleureValeur) {
+                    meilleureValeur = valeur;
+                    meilleur = e;
+                }
+            }
+            return meilleur;
+        }
+
+        Noeud plusVisite() {
+            Noeud meilleur = null;
+            for (int i = 0; i < nbEnfants; i++) {
+                if (meilleur == null || enfants[i].visites.get() > meilleur.visites.get()) meilleur = enfants[i];
+            }
+            return meilleur;
+        }
+    }
+
+    /**
+     * Ordre de développement : score statique décroissant (les captures et fuites d'abord).
+     */
+    private static void ordonner(GestionnaireJeu partie, List<Integer> liste, int[] coups) {
+        int n = liste.size();
+        long[] cles = new long[n];
+        for (int i = 0; i < n; i++) {
+            cles[i] = ((long) -AlphaBeta.scoreStatique(partie, liste.get(i)) << 32) | i;
+        }
+        Arrays.sort(cles);
+        for (int i = 0; i < n; i++) coups[i] = liste.get((int) cles[i]);
+    }
+
+    // --------------------
+    // Choix du coup
+    // --------------------
+    @Override
+    public Coup choisirCoup(GestionnaireJeu gestionnaire) {
+        long debut = System.nanoTime();
+        long echeance = budgetNanos > 0 ? debut + budgetNanos : Long.MAX_VALUE;
+        long maximum = nbSimulationsMax > 0 ? nbSimulationsMax : Long.MAX_VALUE;
+
+        if (AlphaBeta.genererCoups(gestionnaire).isEmpty()) {
+            simulations = 0;
+            dureeNanos = System.nanoTime() - debut;
+            return null;
+        }
+
+        // Le champ de distances est construit ici, avant d'être partagé par les copies
+        gestionnaire.getGrille().getDistancesSorties();
+        int tour = gestionnaire.getTourActuel();
+        int evaluationRacine = AlphaBeta.evaluer(gestionnaire, 0);
+        AtomicLong compteur = new AtomicLong();
+        SplittableRandom flux = new SplittableRandom(graine);
+        graine = flux.nextLong();   // coup suivant : autres tirages, même suite reproductible
+
+        Noeud arbrePartage = new Noeud(PASSE, tour == 1 ? 2 : 1);
+        List<Callable<Noeud>> taches = new ArrayList<>();
+        for (int f = 0; f < nbFils; f++) {
+            GestionnaireJeu partie = gestionnaire.copier();
+            SplittableRandom hasard = flux.split();
+            Noeud racine = mode == Parallelisme.ARBRE ? arbrePartage : new Noeud(PASSE, tour == 1 ? 2 : 1);
+            taches.add(() -> {
+                // Un jeton du compteur par simulation : jamais plus de maximum au total
+                // (un fil peut n'en faire aucune) ; l'échéance n'est lue qu'après une simulation
+                while (compteur.getAndIncrement() < maximum) {
+                    simuler(partie, racine, hasard, evaluationRacine);
+                    if (System.nanoTime() >= echeance) break;
+                }
+                return racine;
+            });
+        }
+
+        List<Noeud> racines = executer(taches);
+        simulations = Math.min(compteur.get(), maximum);
+        dureeNanos = System.nanoTime() - debut;
+
+        int meilleur = fusionner(racines, mode == Parallelisme.ARBRE);
+        return meilleur == PASSE ? null : AlphaBeta.versCoup(gestionnaire, meilleur);
+    }
+
+    /**
+     * Un seul fil : la tâche tourne dans le fil appelant, sans pool.
+     * Sinon, un pool propre à l'appel, arrêté avant de rendre le coup : une IA
+     * abandonnée en fin de partie ne laisse aucun fil derrière elle.
+     */
+    private List<Noeud> executer(List<Callable<Noeud>> taches) {
+        List<Noeud> racines = new ArrayList<>();
+        ForkJoinPool pool = null;
+        try {
+            if (taches.size() == 1) {
+                racines.add(taches.get(0).call());
+                return racines;
+            }
+            pool = new ForkJoinPool(taches.size());
+            for (Future<Noeud> resultat : pool.invokeAll(taches)) racines.add(resultat.get());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Recherche interrompue", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'un fil de recherche", e.getCause());
+        } catch (Exception e) {
+            throw new IllegalStateException("Échec de la recherche", e);
+        } finally {
+            if (pool != null) pool.shutdown();
+        }
+        return racines;
+    }
+
+    /**
+     * Coup le plus visité. En mode RACINE, les visites de chaque coup sont additionnées
+     * sur tous les arbres (les codes de coups sont les mêmes : même position de départ).
+     */
+    private int fusionner(List<Noeud> racines, boolean partage) {
+        if (partage) {
+            Noeud meilleur = racines.get(0).plusVisite();
+            tauxMeilleurCoup = taux(meilleur.gains.get(), meilleur.visites.get());
+            return meilleur.coup;
+        }
+        Map<Integer, long[]> totaux = new HashMap<>();
+        for (Noeud racine : racines) {
+            for (int i = 0; i < racine.nbEnfants; i++) {
+                Noeud e = racine.enfants[i];
+                long[] t = totaux.computeIfAbsent(e.coup, c -> new long[2]);
+                t[0] += e.visites.get();
+                t[1] += e.gains.get();
+            }
+        }
+        int meilleur = PASSE;
+        long[] meilleurTotal = null;
+        for (Map.Entry<Integer, long[]> entree : totaux.entrySet()) {
+            if (meilleurTotal == null || entree.getValue()[0] > meilleurTotal[0]) {
+                meilleur = entree.getKey();
+                meilleurTotal = entree.getValue();
+            }
+        }
+        tauxMeilleurCoup = meilleurTotal == null ? 0.0 : taux(meilleurTotal[1], meilleurTotal[0]);
+        return meilleur;
+    }
+
+    private static double taux(long gains, long visites) {
+        return visites == 0 ? 0.0 : (double) gains / ECHELLE_RECOMPENSE / visites;
+    }
+
+    // --------------------
+    // Une simulation
+    // --------------------
+    /**
+     * Sélection, développement, simulation, rétropropagation ;
+     * la partie est rendue dans son état de départ.
+     */
+    private void simuler(GestionnaireJeu partie, Noeud racine, SplittableRandom hasard, int evaluationRacine) {
+        List<Noeud> chemin = new ArrayList<>();
+        List<Annulation> annulations = new ArrayList<>();
+        chemin.add(racine);
+        racine.visites.addAndGet(PERTE_VIRTUELLE);
+        try {
+            // Sélection et développement
+            Noeud noeud = racine;
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS) {
+                Noeud enfant = noeud.developper(partie);
+                boolean nouveau = enfant != null;
+                if (!nouveau) enfant = noeud.selectionner(exploration);
+                enfant.visites.addAndGet(PERTE_VIRTUELLE);
+                chemin.add(enfant);
+                Annulation a = jouer(partie, enfant.coup);
+                if (a == null) break;
+                annulations.add(a);
+                noeud = enfant;
+                if (nouveau) break;
+            }
+
+            // Simulation
+            for (int p = 0; p < profondeurSimulation && partie.getEtatActuel() == EtatJeu.EN_COURS; p++) {
+                Annulation a = jouer(partie, coupRapide(partie, hasard));
+                if (a == null) break;
+                annulations.add(a);
+            }
+
+            // Rétropropagation : la perte virtuelle devient une vraie visite
+            double recompenseRobots = recompense(partie, evaluationRacine);
+            for (Noeud n : chemin) {
+                double r = n.tour == 1 ? recompenseRobots : 1.0 - recompenseRobots;
+                n.gains.addAndGet(Math.round(r * ECHELLE_RECOMPENSE));
+                n.visites.addAndGet(1 - PERTE_VIRTUELLE);
+            }
+        } finally {
+            for (int i = annulations.size() - 1; i >= 0; i--) {
+                partie.defaireCoup(annulations.get(i));
+            }
+        }
+    }
+
+    private static Annulation jouer(GestionnaireJeu partie, int coup) {
+        return coup == PASSE ? partie.passerTour() : AlphaBeta.faire(partie, coup);
+    }
+
+    /**
+     * Politique de simulation : meilleur de deux coups tirés au hasard.
+     */
+    private static int coupRapide(GestionnaireJeu partie, SplittableRandom hasard) {
+        List<Integer> coups = AlphaBeta.genererCoups(partie);
+        if (coups.isEmpty()) return PASSE;
+        int a = coups.get(hasard.nextInt(coups.size()));
+        int b = coups.get(hasard.nextInt(coups.size()));
+        if (a == b) return a;
+        return AlphaBeta.scoreStatique(partie, a) >= AlphaBeta.scoreStatique(partie, b) ? a : b;
+    }
+
+    /**
+     * Récompense des robots dans [0, 1] : 1, 0 ou 1/2 si la partie est finie,
+     * sinon l'écart d'évaluation depuis la racine, ramené dans [0, 1].
+     */
+    private static double recompense(GestionnaireJeu partie, int evaluationRacine) {
+        int evaluation = AlphaBeta.evaluer(partie, 0);
+        if (partie.getEtatActuel() == EtatJeu.TERMINEE) {
+            return evaluation > 0 ? 1.0 : evaluation < 0 ? 0.0 : 0.5;
+        }
+        return 0.5 + 0.5 * Math.tanh((evaluation - evaluationRacine) / ECHELLE_EVALUATION);
+    }
+
+    // --------------------
+    // Configuration et mesures
+    // --------------------
+    /**
+     * Budget en temps par coup ; remplace un éventuel budget en simulations.
+     */
+    public void setBudgetMillis(long millis) {
+        this.budgetNanos = Math.max(1, millis) * 1_000_000L;
+        this.nbSimulationsMax = 0;
+    }
+
+    /**
+     * Budget en nombre de simulations par coup (tous fils confondus) ; remplace le budget en temps.
+     */
+    public void setNbSimulations(long nbSimulations) {
+        this.nbSimulationsMax = Math.max(1, nbSimulations);
+        this.budgetNanos = 0;
+    }
+
+    /**
+     * Nombre de fils de recherche (1 par défaut : la simulation de masse parallélise déjà les parties).
+     */
+    public void setNbFils(int nbFils) {
+        this.nbFils = Math.max(1, nbFils);
+    }
+
+    public void setParallelisme(Parallelisme mode) {
+        this.mode = mode;
+    }
+
+    public void setProfondeurSimulation(int profondeur) {
+        this.profondeurSimulation = Math.max(0, profondeur);
+    }
+
+    public void setExploration(double exploration) {
+        this.exploration = exploration;
+    }
+
+    /**
+     * Graine des tirages : avec un seul fil et un budget en simulations, le coup est reproductible.
+     */
+    public void setGraine(long graine) {
+        this.graine = graine;
+    }
+
+    public long getSimulations() { return simulations; }
+
+    /**
+     * Taux de victoire estimé du coup choisi, pour le camp qui le joue.
+     */
+    public double getTauxMeilleurCoup() { return tauxMeilleurCoup; }
+
+    /**
+     * Simulations par seconde lors de la dernière recherche.
+     */
+    public double getSimulationsParSeconde() {
+        return dureeNanos == 0 ? 0.0 : simulations * 1e9 / dureeNanos;
+    }
+}
@@ -0,0 +1,140 @@
+package ia;
+
+import java.util.Arrays;
+import java.util.function.IntPredicate;
+import java.util.function.IntUnaryOperator;
+
+import model.terrain.Grille;
+import model.terrain.Voisinage;
+
+/**
+ * Recherche A* en 8 directions sur les index de la grille.
+ * Les tampons (coûts, parents, tas) sont alloués une fois et réutilisés
+ * d'une recherche à l'autre grâce à un numéro de génération.
+ */
+public class RechercheChemin {
+
+    /** Valeur d'heuristique signifiant « objectif inatteignable depuis cette case ». */
+    public static final int INACCESSIBLE = Integer.MAX_VALUE;
+
+    private final Voisinage voisinage;
+    private final int[] couts;
+    private final int[] parents;
+    private final int[] estimations;
+    private final int[] generations;
+    private int generation;
+
+    // Tas binaire : (f << 32) | index
+    private long[] tas = new long[64];
+    private int tailleTas;
+
+    private int noeudsDeveloppes;
+
+    public RechercheChemin(Grille grille) {
+        this.voisinage = grille.getVoisinage();
+        int n = grille.getNbLignes() * grille.getNbColonnes();
+        this.couts = new int[n];
+        this.parents = new int[n];
+        this.estimations = new int[n];
+        this.generations = new int[n];
+    }
+
+    /**
+     * Plus court chemin depuis depart vers une case où l'heuristique vaut 0.
+     * L'heuristique doit être admissible ; INACCESSIBLE élague la case.
+     *
+     * @param franchissable cases sur lesquelles on peut se poser
+     * @return les cases du chemin (départ exclu, arrivée incluse), ou null
+     */
+    public int[] chercher(int depart, IntPredicate franchissable, IntUnaryOperator heuristique) {
+        nouvelleGeneration();
+        tailleTas = 0;
+        noeudsDeveloppes = 0;
+
+        int h0 = heuristique.applyAsInt(depart);
+        if (h0 == INACCESSIBLE) return null;
+        generations[depart] = generation;
+        couts[depart] = 0;
+        parents[depart] = -1;
+        estimations[depart] = h0;
+        empiler(h0, depart);
+
+        while (tailleTas > 0) {
+            long tete = depiler();
+            int u = (int) tete;
+            int g = couts[u];
+            if ((int) (tete >>> 32) - estimations[u] > g) continue; // entrée périmée
+            if (u != depart && estimations[u] == 0) return reconstruire(u);
+            noeudsDeveloppes++;
+
+            for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                int v = voisinage.voisin8(u, k);
+                if (generations[v] == generation && couts[v] <= g + 1) continue;
+                if (!franchissable.test(v)) continue;
+                int h = heuristique.applyAsInt(v);
+                if (h == INACCESSIBLE) continue;
+                generations[v] = generation;
+                couts[v] = g + 1;
+                parents[v] = u;
+                estimations[v] = h;
+                empiler(g + 1 + h, v);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Nombre de cases développées par la dernière recherche.
+     */
+    public int getNoeudsDeveloppes() {
+        return noeudsDeveloppes;
+    }
+
+    private int[] reconstruire(int arrivee) {
+        int longueur = couts[arrivee];
+        int[] chemin = new int[longueur];
+        for (int u = arrivee, i = longueur - 1; i >= 0; u = parents[u], i--) {
+            chemin[i] = u;
+        }
+        return chemin;
+    }
+
+    private void nouvelleGeneration() {
+        if (++generation == 0) {
+            Arrays.fill(generations, 0);
+            generation = 1;
+        }
+    }
+
+    // --------------------
+    // Tas binaire
+    // --------------------
+    private void empiler(int f, int index) {
+        if (tailleTas == tas.length) tas = Arrays.copyOf(tas, tas.length * 2);
+        long valeur = ((long) f << 32) | (index & 0xffffffffL);
+        int i = tailleTas++;
+        while (i > 0) {
+            int p = (i - 1) >>> 1;
+            if (tas[p] <= valeur) break;
+            tas[i] = tas[p];
+            i = p;
+        }
+        tas[i] = valeur;
+    }
+
+    private long depiler() {
+        long racine = tas[0];
+        long dernier = tas[--tailleTas];
+        int i = 0;
+        int moitie = tailleTas >>> 1;
+        while (i < moitie) {
+            int e = 2 * i + 1;
+            if (e + 1 < tailleTas && tas[e + 1] < tas[e]) e++;
+            if (dernier <= tas[e]) break;
+            tas[i] = tas[e];
+            i = e;
+        }
+        if (tailleTas > 0) tas[i] = dernier;
+        return racine;
+    }
+}
@@ -0,0 +1,17 @@
+package ia;
+
+import model.jeu.GestionnaireJeu;
+
+/**
+ * Joueur automatique pour un camp.
+ * Une instance est liée à une seule partie (elle peut garder un cache entre les tours).
+ */
+public interface Strategie {
+
+    /**
+     * Choisit le coup à jouer pour le camp dont c'est le tour.
+     *
+     * @return le coup, ou null si aucun coup légal
+     */
+    Coup choisirCoup(GestionnaireJeu gestionnaire);
+}
@@ -0,0 +1,125 @@
+package ia;
+
+import java.util.Arrays;
+
+/**
+ * Table de transposition de taille fixe, sur deux tableaux de long (aucun objet par entrée).
+ *
+ * Chaque seau contient deux emplacements :
+ * - le premier garde l'entrée la plus profonde (remplacée seulement par une recherche
+ *   au moins aussi profonde, ou par une entrée d'une recherche plus récente) ;
+ * - le second est remplacé à chaque fois.
+ *
+ * Une entrée tient dans un long : score (32 bits), meilleur coup (16), profondeur (8),
+ * type de borne (2) et génération (6).
+ */
+public class TableTransposition {
+
+    public static final int AUCUNE = 0;
+    public static final int EXACTE = 1;
+    public static final int MINORANT = 2;   // score >= valeur (coupure beta)
+    public static final int MAJORANT = 3;   // score <= valeur (aucun coup n'a dépassé alpha)
+
+    public static final int AUCUN_COUP = 0xffff;
+
+    private final long[] cles;
+    private final long[] donnees;
+    private final int masqueSeaux;
+    private int generation;
+
+    // Dernier résultat de sonder()
+    private int score;
+    private int coup;
+    private int profondeur;
+    private int borne;
+
+    /**
+     * @param tailleLog2 la table a 2^tailleLog2 entrées (16 octets chacune)
+     */
+    public TableTransposition(int tailleLog2) {
+        int taille = 1 << Math.max(1, Math.min(30, tailleLog2));
+        this.cles = new long[taille];
+        this.donnees = new long[taille];
+        this.masqueSeaux = (taille >>> 1) - 1;
+    }
+
+    /**
+     * À appeler avant chaque nouvelle recherche : les anciennes entrées deviennent remplaçables.
+     */
+    public void nouvelleRecherche() {
+        generation = (generation + 1) & 0x3f;
+    }
+
+    public void vider() {
+        Arrays.fill(cles, 0L);
+        Arrays.fill(donnees, 0L);
+    }
+
+    // --------------------
+    // Lecture
+    // --------------------
+    /**
+     * Cherche l'état ; en cas de succès, le contenu est lisible par les getters.
+     */
+    public boolean sonder(long hash) {
+        int i = seau(hash);
+        for (int j = i; j < i + 2; j++) {
+            if (cles[j] == hash && donnees[j] != 0) {
+                long d = donnees[j];
+                score = (int) (d >> 32);
+                coup = (int) (d >>> 16) & 0xffff;
+                profondeur = (int) (d >>> 8) & 0xff;
+                borne = (int) (d >>> 6) & 0x3;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public int getScore() { return score; }
+    public int getCoup() { return coup; }
+    public int getProfondeur() { return profondeur; }
+    public int getBorne() { return borne; }
+
+    // --------------------
+    // Écriture
+    // --------------------
+    public void enregistrer(long hash, int score, int coup, int profondeur, int borne) {
+        long d = ((long) score << 32)
+                | ((long) (coup & 0xffff) << 16)
+                | ((long) Math.min(profondeur, 0xff) << 8)
+                | ((long) borne << 6)
+                | generation;
+        int i = seau(hash);
+
+        // Même état : on met à jour l'emplacement qui le contient
+        if (cles[i] == hash || cles[i + 1] == hash) {
+            int j = cles[i] == hash ? i : i + 1;
+            if (j == i + 1 || profondeur >= profondeurDe(donnees[j]) || generationDe(donnees[j]) != generation) {
+                cles[j] = hash;
+                donnees[j] = d;
+            }
+            return;
+        }
+        // Emplacement « profondeur » : pris si vide, périmé ou moins profond
+        if (donnees[i] == 0 || generationDe(donnees[i]) != generation || profondeur >= profondeurDe(donnees[i])) {
+            cles[i] = hash;
+            donnees[i] = d;
+        } else {
+            cles[i + 1] = hash;
+            donnees[i + 1] = d;
+        }
+    }
+
+    private int seau(long hash) {
+        return ((int) (hash ^ (hash >>> 32)) & masqueSeaux) << 1;
+    }
+
+    private static int profondeurDe(long d) {
+        return (int) (d >>> 8) & 0xff;
+    }
+
+    private static int generationDe(long d) {
+        return (int) d & 0x3f;
+    }
+}
@@ -3,7 +3,9 @@ package model.entites;
 import java.util.ArrayList;
 import java.util.List;
 
-import model.terrain.Case;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import model.terrain.Grille;
 import utils.Position;
 
@@ -12,6 +14,8 @@ import utils.Position;
  */
 public class Intrus extends Entite {
 
+    private static final Logger LOG = LoggerFactory.getLogger(Intrus.class);
+
     private final int id;
     private final int CAPACITE_MAX = 2;
 
@@ -25,6 +29,17 @@ public class Intrus extends Entite {
         this.aFui = false;
     }
 
+    /**
+     * Copie sans les sacs portés : la grille copiée les relie ensuite à ses propres sacs.
+     */
+    public Intrus(Intrus source) {
+        super(source.position);
+        this.id = source.id;
+        this.sacsPortes = new ArrayList<>(source.sacsPortes.size());
+        this.aFui = source.aFui;
+        this.estVivant = source.estVivant;
+    }
+
     // --------------------
     // Getters
     // --------------------
@@ -45,8 +60,8 @@ public class Intrus extends Entite {
     @Override
 public void executerAction(Grille grille) {
     // 1. Vérifier si sur une sortie (priorité : fuir)
-    if (grille.getCase(position).estSortie()) {
-        System.out.println("🚪 Intrus #" + id + " s'échappe par la sortie !");
+    if (grille.estSortie(position)) {
+        if (LOG.isDebugEnabled()) LOG.debug("🚪 Intrus #{} s'échappe par la sortie !", id);
         aFui = true;
         setVivant(false);
         grille.retirerIntrus(this);
@@ -60,15 +75,15 @@ public void executerAction(Grille grille) {
         if (!sacsAdjacents.isEmpty()) {
             SacArgent sac = sacsAdjacents.get(0);
             
-            System.out.println("💰 Intrus #" + id + " ramasse un sac !");
+            if (LOG.isDebugEnabled()) LOG.debug("💰 Intrus #{} ramasse un sac !", id);
             
             // Ramasser le sac
             ramasserSac(sac);
             
             // IMPORTANT : Retirer le sac de sa case
-            Case caseSac = grille.getCase(sac.getPosition());
-            if (caseSac != null && caseSac.getEntite() == sac) {
-                caseSac.setEntite(null);
+            Position posSac = sac.getPosition();
+            if (grille.positionValide(posSac) && grille.entiteA(grille.index(posSac)) == sac) {
+                grille.viderCase(grille.index(posSac));
             }
         }
     }
@@ -98,7 +113,7 @@ public void executerAction(Grille grille) {
     // Évasion
     // --------------------
     public boolean estSurSortie(Grille grille) {
-        return grille.getSorties().contains(getPosition());
+        return grille.estSortie(getPosition());
     }
 
     public void sEchapper() {
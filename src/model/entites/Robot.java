@@ -17,6 +17,16 @@ public class Robot extends Entite {
         this.nombreCaptures = 0;
     }
 
+    /**
+     * Copie (pour les copies de grille utilisées par la recherche).
+     */
+    public Robot(Robot source) {
+        super(source.position);
+        this.id = source.id;
+        this.nombreCaptures = source.nombreCaptures;
+        this.estVivant = source.estVivant;
+    }
+
     // --------------------
     // Getters
     // --------------------
@@ -28,6 +38,10 @@ public class Robot extends Entite {
         return nombreCaptures;
     }
 
+    public void setNombreCaptures(int nombreCaptures) {
+        this.nombreCaptures = nombreCaptures;
+    }
+
     // --------------------
     // Méthode principale
     // --------------------
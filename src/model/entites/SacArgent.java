@@ -1,5 +1,9 @@
 package model.entites;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import model.terrain.Grille;
 import utils.Position;
 
 /**
@@ -7,6 +11,8 @@ import utils.Position;
  */
 public class SacArgent extends Entite {
 
+    private static final Logger LOG = LoggerFactory.getLogger(SacArgent.class);
+
     // --------------------
     // Attributs
     // --------------------
@@ -14,6 +20,7 @@ public class SacArgent extends Entite {
     public boolean estRamasse;
     private Intrus porteur; // null si aucun intrus ne le porte
     private final Position positionInitiale;
+    private Grille grille; // grille qui indexe le sac (null si non posé)
 
     // --------------------
     // Constructeur
@@ -26,6 +33,17 @@ public class SacArgent extends Entite {
         this.positionInitiale = positionInitiale;
     }
 
+    /**
+     * Copie sans porteur ni grille : la grille copiée les relie ensuite.
+     */
+    public SacArgent(SacArgent source) {
+        super(source.position);
+        this.id = source.id;
+        this.estRamasse = source.estRamasse;
+        this.positionInitiale = source.positionInitiale;
+        this.estVivant = source.estVivant;
+    }
+
     // --------------------
     // Getters et Setters
     // --------------------
@@ -43,6 +61,9 @@ public class SacArgent extends Entite {
     public void setPorteur(Intrus intrus) {
         this.porteur = intrus;
     }
+    public void setGrille(Grille grille) {
+        this.grille = grille;
+    }
 
     // --------------------
     // Méthodes principales
@@ -59,6 +80,7 @@ public class SacArgent extends Entite {
         estRamasse = false;
         porteur = null;
         position = positionInitiale; // revient à sa position de départ
+        if (grille != null) grille.indexerSac(this);
     }
 
     /**
@@ -69,8 +91,9 @@ public class SacArgent extends Entite {
         this.position = positionInitiale;
         this.estRamasse = false;
         this.porteur = null;
+        if (grille != null) grille.indexerSac(this);
         
-        System.out.println("   💰 Sac retourne à sa position initiale : " + positionInitiale);
+        if (LOG.isDebugEnabled()) LOG.debug("💰 Sac retourne à sa position initiale : {}", positionInitiale);
     }
 
 /**
@@ -79,6 +102,7 @@ public class SacArgent extends Entite {
     public void etreRamasse(Intrus intrus) {
         this.estRamasse = true;
         this.porteur = intrus;
+        if (grille != null) grille.desindexerSac(this);
     }
 
 
@@ -87,7 +111,7 @@ public class SacArgent extends Entite {
     // Méthode abstraite
     // --------------------
     @Override
-    public void executerAction(model.terrain.Grille grille) {
+    public void executerAction(Grille grille) {
         // Les sacs d'argent n'ont pas d'action particulière
         // Ils sont passifs et ne font rien à chaque tour
     }
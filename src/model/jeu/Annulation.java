@@ -0,0 +1,92 @@
+package model.jeu;
+
+import java.util.Arrays;
+
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.SacArgent;
+import utils.Position;
+
+/**
+ * Trace d'un coup joué par GestionnaireJeu.faireCoup : juste de quoi le défaire.
+ *
+ * Les tableaux ne sont alloués que si le coup a capturé, fait fuir un intrus
+ * ou ramassé des sacs ; un déplacement simple ne coûte que les champs scalaires.
+ */
+public final class Annulation {
+
+    // Entité déplacée et sa case de départ (null pour un tour passé)
+    Entite entite;
+    Position depart;
+
+    // Compteurs avant le coup
+    EtatJeu etat;
+    int tour;
+    int toursJoues;
+    int captures;
+    int echappes;
+    int sacsVoles;
+    int capturesRobot;
+
+    // Intrus retirés (capture ou fuite), dans l'ordre : état avant retrait
+    Intrus[] retires;
+    int[] rangs;
+    boolean[] surCase;
+    boolean[] vivants;
+    boolean[] fuis;
+    SacArgent[][] sacsRendus;
+    int nbRetires;
+
+    // Sacs ramassés pendant le coup (ajoutés en fin de getSacsPortes)
+    SacArgent[] ramasses;
+    int nbRamasses;
+
+    Annulation() {
+    }
+
+    /**
+     * Entité déplacée par le coup (null pour un tour passé).
+     */
+    public Entite getEntite() {
+        return entite;
+    }
+
+    /**
+     * Nombre d'intrus retirés de la grille par ce coup (captures et fuites).
+     */
+    public int getNbRetires() {
+        return nbRetires;
+    }
+
+    void noterRetrait(Intrus i, int rang, boolean estSurCase, boolean vivant, boolean fui, SacArgent[] sacs) {
+        if (retires == null) {
+            retires = new Intrus[2];
+            rangs = new int[2];
+            surCase = new boolean[2];
+            vivants = new boolean[2];
+            fuis = new boolean[2];
+            sacsRendus = new SacArgent[2][];
+        } else if (nbRetires == retires.length) {
+            int n = nbRetires * 2;
+            retires = Arrays.copyOf(retires, n);
+            rangs = Arrays.copyOf(rangs, n);
+            surCase = Arrays.copyOf(surCase, n);
+            vivants = Arrays.copyOf(vivants, n);
+            fuis = Arrays.copyOf(fuis, n);
+            sacsRendus = Arrays.copyOf(sacsRendus, n);
+        }
+        retires[nbRetires] = i;
+        rangs[nbRetires] = rang;
+        surCase[nbRetires] = estSurCase;
+        vivants[nbRetires] = vivant;
+        fuis[nbRetires] = fui;
+        sacsRendus[nbRetires] = sacs;
+        nbRetires++;
+    }
+
+    void noterRamassage(SacArgent sac) {
+        if (ramasses == null) ramasses = new SacArgent[2];
+        else if (nbRamasses == ramasses.length) ramasses = Arrays.copyOf(ramasses, nbRamasses * 2);
+        ramasses[nbRamasses++] = sac;
+    }
+}
@@ -1,6 +1,5 @@
 package model.jeu;
 
-import java.util.ArrayList;
 import java.util.List;
 
 import model.entites.Entite;
@@ -8,6 +7,8 @@ import model.entites.Intrus;
 import model.entites.Robot;
 import model.entites.SacArgent;
 import model.terrain.Grille;
+import model.terrain.Voisinage;
+import model.terrain.Zobrist;
 import utils.Direction;
 import utils.Position;
 
@@ -26,6 +27,8 @@ public class GestionnaireJeu {
     private int nombreToursJoues;
 
     private int intrusEchappes;
+    private int sacsVoles;          // sacs emportés par les intrus échappés
+    private Long graineGeneration;  // graine de GenerateurGrilleAleatoire (null si grille non générée)
 
     private Robot robotSelectionne;
     private Intrus intrusSelectionne;
@@ -45,6 +48,26 @@ public class GestionnaireJeu {
         this.intrusEchappes = 0;
     }
 
+    /**
+     * Copie indépendante de la partie (grille et entités comprises), sans sélection ni observateurs.
+     * Permet à une recherche de jouer des coups sans toucher à la partie affichée.
+     */
+    public GestionnaireJeu copier() {
+        GestionnaireJeu copie = new GestionnaireJeu(this);
+        copie.grille = grille.copier(copie);
+        return copie;
+    }
+
+    private GestionnaireJeu(GestionnaireJeu source) {
+        this.etatActuel = source.etatActuel;
+        this.tourActuel = source.tourActuel;
+        this.nombreToursJoues = source.nombreToursJoues;
+        this.intrusCaptures = source.intrusCaptures;
+        this.intrusEchappes = source.intrusEchappes;
+        this.sacsVoles = source.sacsVoles;
+        this.graineGeneration = source.graineGeneration;
+    }
+
     public void setGrille(Grille grille) {
         this.grille = grille;
     }
@@ -57,6 +80,7 @@ public class GestionnaireJeu {
 
     public void demarrerPartie() {
         this.etatActuel = EtatJeu.EN_COURS;
+        grille.publierInstantane();
     }
 
     // --------------------
@@ -68,6 +92,15 @@ public class GestionnaireJeu {
 
     public void changerTour() {
         tourActuel = (tourActuel == 1) ? 2 : 1;
+        grille.basculerTrait();
+    }
+
+    /**
+     * Empreinte de Zobrist de l'état courant (camp au trait et compteurs compris), en O(1).
+     * Les compteurs sont restaurés par defaireCoup : leur clé suit sans mise à jour séparée.
+     */
+    public long getHashZobrist() {
+        return grille.getHashZobrist() ^ Zobrist.compteurs(intrusCaptures, intrusEchappes, sacsVoles);
     }
 
     public void incrementerTour() {
@@ -104,38 +137,215 @@ public class GestionnaireJeu {
             return false; // Mauvais joueur
         }
 
-        // Calcul de la nouvelle position
-        boolean deplace = grille.deplacerEntite(entite, entite.getPosition().deplacer(direction));
-
-        if (deplace) {
-            // Vérifier les captures après déplacement
-            verifierCaptures(entite);
-            verifierFuiteIntrus(entite);
-            if (entite instanceof Intrus) {
-                ramasserSac((Intrus) entite);
-         }
-            
-            incrementerTour();
-            if (grille.partieTerminee()) terminerPartie();
-            else changerTour();
-        }
+        // Un coup = une transaction : une seule notification pour la vue
+        grille.debuterTransaction();
+        try {
+            // Calcul de la nouvelle position
+            boolean deplace = grille.deplacerEntite(entite, grille.voisine(entite.getPosition(), direction));
+
+            if (deplace) {
+                // Vérifier les captures après déplacement
+                verifierCaptures(entite);
+                verifierFuiteIntrus(entite);
+                if (entite instanceof Intrus) {
+                    ramasserSac((Intrus) entite);
+                }
 
-        return deplace;
+                incrementerTour();
+                if (grille.partieTerminee()) terminerPartie();
+                else changerTour();
+            }
+
+            return deplace;
+        } finally {
+            grille.validerTransaction();
+        }
     }
     
+    // --------------------
+    // Faire / défaire un coup (recherche en place)
+    // --------------------
+    /**
+     * Joue un coup comme jouerCoup (mêmes règles, dans le même ordre), mais sans
+     * notification ni affichage, en gardant de quoi le défaire avec defaireCoup.
+     *
+     * @return la trace du coup, ou null si le coup est refusé (rien n'est modifié)
+     */
+    public Annulation faireCoup(Entite entite, Direction direction) {
+        if (etatActuel != EtatJeu.EN_COURS) return null;
+        if ((tourActuel == 1 && entite instanceof Intrus) ||
+                (tourActuel == 2 && entite instanceof Robot)) {
+            return null;
+        }
+        Position nouvellePos = grille.voisine(entite.getPosition(), direction);
+        if (!grille.positionValide(nouvellePos) || !grille.caseEstLibre(nouvellePos)) return null;
+
+        Annulation a = noterCompteurs();
+        a.entite = entite;
+        a.depart = entite.getPosition();
+        if (entite instanceof Robot) a.capturesRobot = ((Robot) entite).getNombreCaptures();
+
+        grille.deplacerBrut(entite, nouvellePos);
+        Voisinage voisinage = grille.getVoisinage();
+        int index = grille.index(nouvellePos);
+
+        if (entite instanceof Robot) {
+            Robot robot = (Robot) entite;
+            // Capture automatique de Grille.deplacerEntite : premier intrus des 8 voisines
+            for (int k = 0; k < voisinage.nbVoisins8(index); k++) {
+                Entite voisin = grille.entiteA(voisinage.voisin8(index, k));
+                if (voisin instanceof Intrus) {
+                    Intrus capture = (Intrus) voisin;
+                    if (capture.estVivant()) robot.setNombreCaptures(robot.getNombreCaptures() + 1);
+                    retirer(a, capture, true, false);
+                    intrusCaptures++;
+                    break;
+                }
+            }
+            // verifierCaptures : intrus des 4 voisines
+            for (int k = 0; k < voisinage.nbVoisins4(index); k++) {
+                Entite voisin = grille.entiteA(voisinage.voisin4(index, k));
+                if (voisin instanceof Intrus) {
+                    retirer(a, (Intrus) voisin, false, false);
+                    intrusCaptures++;
+                }
+            }
+        } else if (entite instanceof Intrus) {
+            Intrus intrus = (Intrus) entite;
+            for (int k = 0; k < voisinage.nbVoisins4(index); k++) {
+                if (grille.entiteA(voisinage.voisin4(index, k)) instanceof Robot) {
+                    retirer(a, intrus, false, false);
+                    intrusCaptures++;
+                    break;
+                }
+            }
+            // verifierFuiteIntrus
+            if (grille.estSortie(nouvellePos)) {
+                sacsVoles += intrus.getSacsPortes().size();
+                retirer(a, intrus, true, true);
+                intrusEchappes++;
+            }
+            // ramasserSac
+            for (SacArgent sac : grille.getSacsAdjacents(nouvellePos)) {
+                a.noterRamassage(sac);
+                sac.estRamasse = true;
+                sac.setPorteur(intrus);
+                grille.desindexerSac(sac);
+                intrus.getSacsPortes().add(sac);
+            }
+        }
+
+        nombreToursJoues++;
+        if (grille.partieTerminee()) etatActuel = EtatJeu.TERMINEE;
+        else changerTour();
+        return a;
+    }
+
+    /**
+     * Passe le tour du camp à jouer (aucun coup légal), de façon réversible.
+     */
+    public Annulation passerTour() {
+        Annulation a = noterCompteurs();
+        nombreToursJoues++;
+        changerTour();
+        return a;
+    }
+
+    /**
+     * Défait exactement le dernier coup fait avec faireCoup ou passerTour
+     * (les coups se défont dans l'ordre inverse). Aucune notification.
+     */
+    public void defaireCoup(Annulation a) {
+        Entite entite = a.entite;
+        Intrus ramasseur = entite instanceof Intrus ? (Intrus) entite : null;
+
+        // Sacs ramassés : retirés de la fin de la liste du porteur, remis au sol
+        for (int k = a.nbRamasses - 1; k >= 0; k--) {
+            SacArgent sac = a.ramasses[k];
+            List<SacArgent> portes = ramasseur.getSacsPortes();
+            portes.remove(portes.size() - 1);
+            sac.estRamasse = false;
+            sac.setPorteur(null);
+            grille.indexerSac(sac);
+        }
+
+        // Intrus retirés, dans l'ordre inverse
+        for (int k = a.nbRetires - 1; k >= 0; k--) {
+            Intrus i = a.retires[k];
+            for (SacArgent sac : a.sacsRendus[k]) {
+                sac.estRamasse = true;
+                sac.setPorteur(i);
+                grille.desindexerSac(sac);
+                i.getSacsPortes().add(sac);
+            }
+            grille.remettreIntrus(i, a.rangs[k], a.surCase[k]);
+            i.setVivant(a.vivants[k]);
+            i.aFui = a.fuis[k];
+        }
+
+        if (entite != null) {
+            grille.deplacerBrut(entite, a.depart);
+            if (entite instanceof Robot) ((Robot) entite).setNombreCaptures(a.capturesRobot);
+        }
+
+        if (tourActuel != a.tour) changerTour();
+        etatActuel = a.etat;
+        nombreToursJoues = a.toursJoues;
+        intrusCaptures = a.captures;
+        intrusEchappes = a.echappes;
+        sacsVoles = a.sacsVoles;
+    }
+
+    private Annulation noterCompteurs() {
+        Annulation a = new Annulation();
+        a.etat = etatActuel;
+        a.tour = tourActuel;
+        a.toursJoues = nombreToursJoues;
+        a.captures = intrusCaptures;
+        a.echappes = intrusEchappes;
+        a.sacsVoles = sacsVoles;
+        return a;
+    }
+
+    /**
+     * Retire un intrus (capture ou fuite) en notant son état, puis rend ses sacs
+     * à leur position initiale comme Intrus.relacherSacs.
+     */
+    private void retirer(Annulation a, Intrus i, boolean tuer, boolean fuir) {
+        boolean surCase = grille.positionValide(i.getPosition())
+                && grille.entiteA(grille.index(i.getPosition())) == i;
+        boolean vivant = i.estVivant();
+        boolean fui = i.aFui();
+        List<SacArgent> portes = i.getSacsPortes();
+        SacArgent[] sacs = portes.toArray(new SacArgent[0]);
+
+        int rang = grille.enleverIntrus(i);
+        a.noterRetrait(i, rang, surCase, vivant, fui, sacs);
+        if (tuer) i.setVivant(false);
+        if (fuir) i.aFui = true;
+        for (SacArgent sac : sacs) {
+            sac.estRamasse = false;
+            sac.setPorteur(null);
+            grille.indexerSac(sac);
+        }
+        portes.clear();
+    }
+
     /**
      * Vérifie si l'entité qui vient de se déplacer capture un intrus voisin
      * (si c'est un robot) ou se fait capturer (si c'est un intrus).
      */
     private void verifierCaptures(Entite entiteDeplacee) {
-        Position pos = entiteDeplacee.getPosition();
-        List<Position> positionsVoisines = obtenirPositionsVoisines(pos);
+        // 4 cases voisines (haut, bas, gauche, droite) depuis les tables précalculées
+        Voisinage voisinage = grille.getVoisinage();
+        int index = grille.index(entiteDeplacee.getPosition());
+        int nbVoisins = voisinage.nbVoisins4(index);
         
         if (entiteDeplacee instanceof Robot) {
             // Le robot capture les intrus voisins
             Robot robot = (Robot) entiteDeplacee;
-            for (Position posVoisine : positionsVoisines) {
-                Entite voisin = grille.getCase(posVoisine).getEntite();
+            for (int k = 0; k < nbVoisins; k++) {
+                Entite voisin = grille.entiteA(voisinage.voisin4(index, k));
                 if (voisin instanceof Intrus) {
                     capturerIntrus((Intrus) voisin, robot);
                 }
@@ -143,8 +353,8 @@ public class GestionnaireJeu {
         } else if (entiteDeplacee instanceof Intrus) {
             // L'intrus se fait capturer s'il y a un robot voisin
             Intrus intrus = (Intrus) entiteDeplacee;
-            for (Position posVoisine : positionsVoisines) {
-                Entite voisin = grille.getCase(posVoisine).getEntite();
+            for (int k = 0; k < nbVoisins; k++) {
+                Entite voisin = grille.entiteA(voisinage.voisin4(index, k));
                 if (voisin instanceof Robot) {
                     capturerIntrus(intrus, (Robot) voisin);
                     break; // Capturer une seule fois
@@ -153,26 +363,6 @@ public class GestionnaireJeu {
         }
     }
     
-    /**
-     * Retourne les 4 positions voisines (haut, bas, gauche, droite)
-     */
-    private List<Position> obtenirPositionsVoisines(Position pos) {
-        List<Position> voisins = new ArrayList<>();
-        int x = pos.getX();
-        int y = pos.getY();
-        
-        // Haut
-        if (x > 0) voisins.add(new Position(x - 1, y));
-        // Bas
-        if (x < grille.getNbLignes() - 1) voisins.add(new Position(x + 1, y));
-        // Gauche
-        if (y > 0) voisins.add(new Position(x, y - 1));
-        // Droite
-        if (y < grille.getNbColonnes() - 1) voisins.add(new Position(x, y + 1));
-        
-        return voisins;
-    }
-    
     /**
      * Capture un intrus.
      */
@@ -181,7 +371,8 @@ public class GestionnaireJeu {
     Intrus intrus = (Intrus) entiteDeplacee;
     Position pos = intrus.getPosition();
     
-    if (grille.getCase(pos).estSortie()) {
+    if (grille.estSortie(pos)) {
+        sacsVoles += intrus.getSacsPortes().size();   // compté avant que retirerIntrus ne rende les sacs
         intrus.sEchapper();       // Retirer de la grille
         grille.retirerIntrus(intrus);
 
@@ -190,15 +381,12 @@ public class GestionnaireJeu {
 }
 
     private void ramasserSac(Intrus intrus) {
-        List<SacArgent> sacs = grille.getSacs(); // Récupérer tous les sacs sur la grille
+        // Sacs non ramassés adjacents à l'intrus (index spatial de la grille)
+        List<SacArgent> sacs = grille.getSacsAdjacents(intrus.getPosition());
 
         for (SacArgent sac : sacs) {
-            // Vérifie si le sac est adjacent à l'intrus et non ramassé
-            if (!sac.estRamasse && intrus.sacEstAdjacent(sac.getPosition())) {
-                sac.estRamasse = true;             // Marquer le sac comme ramassé
-                sac.setPorteur(intrus);            // Lier le sac à l'intrus
-                intrus.getSacsPortes().add(sac);   // Ajouter le sac à la liste des sacs de l'intrus
-            }
+            sac.etreRamasse(intrus);           // Marquer le sac comme ramassé et le lier à l'intrus
+            intrus.getSacsPortes().add(sac);   // Ajouter le sac à la liste des sacs de l'intrus
         }
     }
 
@@ -242,6 +430,21 @@ public class GestionnaireJeu {
         intrusEchappes++;
     }
 
+    public int getSacsVoles() {
+        return sacsVoles;
+    }
+
+    /**
+     * Graine qui a généré la grille : la même graine redonne la même grille.
+     */
+    public Long getGraineGeneration() {
+        return graineGeneration;
+    }
+
+    public void setGraineGeneration(Long graine) {
+        this.graineGeneration = graine;
+    }
+
     // --------------------
     // Getters
     // --------------------
@@ -5,21 +5,20 @@ import utils.Position;
 
 /**
  * Représente une case de la grille
+ * Vue légère sur le stockage compact de la Grille : aucune donnée n'est
+ * conservée ici, tout est lu et écrit dans les tableaux de la grille.
  */
 public class Case {
 
-    private final Position position;
-    private final TypeCase type;
-    private Entite entite; // null si pas d'entité
+    private final Grille grille;
+    private final int index; // x * nbColonnes + y
 
     /**
-     * Constructeur
-
+     * Constructeur (réservé à la grille)
      */
-    public Case(Position position, TypeCase type) {
-        this.position = position;
-        this.type = type;
-        this.entite = null; // initialement vide
+    Case(Grille grille, int index) {
+        this.grille = grille;
+        this.index = index;
     }
 
     // --------------------
@@ -27,15 +26,19 @@ public class Case {
     // --------------------
 
     public Position getPosition() {
-        return position;
+        return grille.positionDe(index);
     }
 
     public TypeCase getType() {
-        return type;
+        return grille.typeA(index);
     }
 
     public Entite getEntite() {
-        return entite;
+        return grille.entiteA(index);
+    }
+
+    public int getIndex() {
+        return index;
     }
 
     // --------------------
@@ -43,19 +46,19 @@ public class Case {
     // --------------------
 
     public void setEntite(Entite entite) {
-        this.entite = entite;
+        grille.placerEntite(index, entite);
     }
 
     public boolean estLibre() {
-        return entite == null && type != TypeCase.OBSTACLE;
+        return grille.estLibre(index);
     }
 
     public boolean estObstacle() {
-        return type == TypeCase.OBSTACLE;
+        return getType() == TypeCase.OBSTACLE;
     }
 
     public boolean estSortie() {
-        return type == TypeCase.SORTIE;
+        return getType() == TypeCase.SORTIE;
     }
 
 
@@ -0,0 +1,202 @@
+package model.terrain;
+
+import java.util.Arrays;
+
+/**
+ * Champ de distances vers la sortie la plus proche.
+ * BFS multi-sources depuis toutes les sorties, en 8 directions,
+ * à travers les cases qui ne sont pas des obstacles (les entités sont ignorées).
+ *
+ * Le champ est tenu à jour par la Grille :
+ * - ajout d'une sortie : les distances ne peuvent que baisser, on propage depuis la sortie ;
+ * - ajout d'un obstacle : seules les cases dont tous les plus courts chemins
+ *   passaient par l'obstacle sont recalculées.
+ */
+public class DistancesSorties {
+
+    public static final int INACCESSIBLE = Integer.MAX_VALUE;
+
+    private final Grille grille;
+    private final Voisinage voisinage;
+    private final int[] distances;
+
+    // Tampons réutilisés entre deux mises à jour
+    private final int[] file;
+    private final int[] marques;
+    private int marque;
+    private int[] touchees = new int[64];
+
+    /**
+     * Calcule le champ complet pour l'état actuel de la grille.
+     */
+    DistancesSorties(Grille grille) {
+        this.grille = grille;
+        this.voisinage = grille.getVoisinage();
+        int n = grille.getNbLignes() * grille.getNbColonnes();
+        this.distances = new int[n];
+        this.file = new int[n];
+        this.marques = new int[n];
+        recalculer();
+    }
+
+    // --------------------
+    // Requêtes
+    // --------------------
+    /**
+     * Distance (en coups) de la case vers la sortie la plus proche,
+     * ou INACCESSIBLE.
+     */
+    public int distance(int index) {
+        return distances[index];
+    }
+
+    // --------------------
+    // Calcul complet
+    // --------------------
+    public void recalculer() {
+        Arrays.fill(distances, INACCESSIBLE);
+        int tete = 0, queue = 0;
+        for (int i = 0; i < distances.length; i++) {
+            if (grille.typeA(i) == TypeCase.SORTIE) {
+                distances[i] = 0;
+                file[queue++] = i;
+            }
+        }
+        propager(tete, queue);
+    }
+
+    /**
+     * BFS classique depuis les cases déjà présentes dans la file.
+     */
+    private void propager(int tete, int queue) {
+        while (tete < queue) {
+            int u = file[tete++];
+            int du = distances[u] + 1;
+            for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                int v = voisinage.voisin8(u, k);
+                if (du < distances[v] && grille.typeA(v) != TypeCase.OBSTACLE) {
+                    distances[v] = du;
+                    file[queue++] = v;
+                }
+            }
+        }
+    }
+
+    // --------------------
+    // Mises à jour incrémentales
+    // --------------------
+    /**
+     * Une sortie vient d'être posée : propagation locale des distances plus courtes.
+     */
+    void sortieAjoutee(int index) {
+        distances[index] = 0;
+        file[0] = index;
+        propager(0, 1);
+    }
+
+    /**
+     * Un obstacle vient d'être posé : recalcule uniquement les cases qui en dépendaient.
+     */
+    void obstacleAjoute(int index) {
+        int ancienne = distances[index];
+        distances[index] = INACCESSIBLE;
+        if (ancienne == INACCESSIBLE) return;
+
+        // 1. Cases touchées, niveau par niveau (ordre BFS depuis l'obstacle).
+        //    Une case est touchée si aucune voisine non touchée n'est à distance - 1.
+        //    La file étant parcourue par niveaux croissants, les parents d'une case
+        //    sont toujours décidés avant elle.
+        int mc = nouvelleMarque();   // candidate examinée
+        int mt = nouvelleMarque();   // candidate touchée
+        int nbTouchees = 0;
+        int tete = 0, queue = 0;
+        marques[index] = mt;
+        file[queue++] = index;
+        while (tete < queue) {
+            int u = file[tete++];
+            if (u != index) {
+                if (aUnParentSain(u, mt)) continue;
+                marques[u] = mt;
+                if (nbTouchees == touchees.length) touchees = Arrays.copyOf(touchees, nbTouchees * 2);
+                touchees[nbTouchees++] = u;
+            }
+            // La distance de u n'est pas encore modifiée : ses enfants sont à distance + 1
+            int enfant = (u == index ? ancienne : distances[u]) + 1;
+            for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                int v = voisinage.voisin8(u, k);
+                if (marques[v] != mc && marques[v] != mt
+                        && distances[v] == enfant && grille.typeA(v) != TypeCase.OBSTACLE) {
+                    marques[v] = mc;
+                    file[queue++] = v;
+                }
+            }
+        }
+        if (nbTouchees == 0) return;
+        marques[index] = mc; // l'obstacle ne doit pas être repris par la propagation
+
+        // 2. Les cases touchées repartent de leurs voisines saines
+        long[] graines = new long[nbTouchees];
+        int nbGraines = 0;
+        for (int i = 0; i < nbTouchees; i++) {
+            int u = touchees[i];
+            int meilleure = INACCESSIBLE;
+            for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                int v = voisinage.voisin8(u, k);
+                if (marques[v] != mt && distances[v] != INACCESSIBLE && distances[v] + 1 < meilleure) {
+                    meilleure = distances[v] + 1;
+                }
+            }
+            distances[u] = INACCESSIBLE;
+            if (meilleure != INACCESSIBLE) {
+                graines[nbGraines++] = ((long) meilleure << 32) | u;
+            }
+        }
+        Arrays.sort(graines, 0, nbGraines);
+
+        // 3. BFS à graines multiples : on fusionne la liste triée et la file FIFO
+        int g = 0;
+        tete = 0;
+        queue = 0;
+        while (g < nbGraines || tete < queue) {
+            int u;
+            if (tete < queue && (g == nbGraines || distances[file[tete]] <= (int) (graines[g] >>> 32))) {
+                u = file[tete++];
+            } else {
+                int d = (int) (graines[g] >>> 32);
+                u = (int) graines[g++];
+                if (d >= distances[u]) continue;
+                distances[u] = d;
+            }
+            int du = distances[u] + 1;
+            for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                int v = voisinage.voisin8(u, k);
+                if (marques[v] == mt && du < distances[v]) {
+                    distances[v] = du;
+                    file[queue++] = v;
+                }
+            }
+        }
+    }
+
+    /**
+     * Vrai si u a une voisine non touchée à distance - 1.
+     */
+    private boolean aUnParentSain(int u, int mt) {
+        int parent = distances[u] - 1;
+        for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+            int v = voisinage.voisin8(u, k);
+            if (distances[v] == parent && marques[v] != mt && grille.typeA(v) != TypeCase.OBSTACLE) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private int nouvelleMarque() {
+        if (++marque <= 0) {
+            Arrays.fill(marques, 0);
+            marque = 1;
+        }
+        return marque;
+    }
+}
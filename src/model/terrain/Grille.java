@@ -1,39 +1,111 @@
 package model.terrain;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import model.entites.Entite;
 import model.entites.Intrus;
 import model.entites.Robot;
 import model.entites.SacArgent;
+import model.jeu.EtatJeu;
 import model.jeu.GestionnaireJeu;
 import observer.ObservateurGrille;
 import observer.Sujet;
+import utils.Direction;
 import utils.Position;
 
 /**
  * Classe centrale représentant la grille de jeu
  * Implémente le pattern Observer pour notifier la vue
+ *
+ * Stockage compact : le type de chaque case est un octet dans {@code types}
+ * et l'occupant un identifiant dans {@code occupants}, tous deux indexés par
+ * {@code x * nbColonnes + y}. Les objets Case ne sont que des vues créées à la demande.
+ *
+ * Après chaque changement validé (fin de la transaction la plus externe qui a modifié
+ * quelque chose, donc après chaque coup de jouerCoup), la grille publie un InstantaneGrille immuable
+ * que les autres fils lisent sans verrou (getInstantane).
  */
 
 public class Grille implements Sujet {
 
+    private static final Logger LOG = LoggerFactory.getLogger(Grille.class);
+
+    // Symboles des occupants dans les cartes texte (le terrain : TypeCase.getSymbole)
+    public static final char SYMBOLE_ROBOT = 'R';
+    public static final char SYMBOLE_INTRUS = 'I';
+    public static final char SYMBOLE_SAC = '$';
+
     // --------------------
     // Attributs principaux
     // --------------------
     private final int nbLignes;
     private final int nbColonnes;
-    private final Case[][] cases;
+    private byte[] types;            // ordinal de TypeCase par case (copié avant écriture si publié)
+    private boolean typesPartages;   // types est référencé par l'instantané publié
+    private final int[] occupants;   // 0 = vide, sinon numéro d'entité + 1
+
+    // Positions de la grille, créées à la demande (une instance par case), partagées avec
+    // les copies ; null au-delà de MAX_POSITIONS cases. Libérées avec la grille.
+    private final Position[] positions;
+    private static final int MAX_POSITIONS = 1 << 22;
+
+    // Registre des entités posées sur la grille (numéro -> entité)
+    private final List<Entite> entites;
+    private final Map<Entite, Integer> numeros;
+
+    // Index spatial des sacs posés au sol (null tant qu'aucun sac n'est ajouté)
+    private SacArgent[] sacsAuSol;
+
+    // Sacs portés -> id du porteur compté dans l'empreinte (pour l'en retirer au retour au sol)
+    private final Map<SacArgent, Integer> porteursSacs;
+
+    // Nombre de robots adjacents à chaque case (au plus 8)
+    private final byte[] menaces;
+
+    // Tables de voisinage partagées (calculées au premier besoin)
+    private Voisinage voisinage;
+
+    // Distances aux sorties (calculées au premier besoin, puis tenues à jour).
+    // Partagées avec les copies tant que le terrain ne change pas.
+    private DistancesSorties distancesSorties;
+    private boolean distancesPartagees;
+
+    private static final TypeCase[] TYPES = TypeCase.values();
+
+    // Empreinte de Zobrist : occupants, sacs au sol et camp au trait (le terrain n'en fait pas partie)
+    private long hashZobrist;
 
     private final List<Robot> robots;
     private final List<Intrus> intrus;
     private final List<SacArgent> sacs;
     private final List<Position> sorties;
 
+    // Dernier état validé, lisible par les autres fils
+    private volatile InstantaneGrille instantane;
+    private long versionInstantane;
+    private boolean instantanePerime;   // l'état a changé depuis la dernière publication
+    private boolean publicationInstantanes = true;
+
     // Observateurs pour le pattern Observer
     private final List<ObservateurGrille> observateurs;
 
+    // Transactions : cases modifiées depuis la dernière notification
+    private final Set<Position> casesModifiees;
+    private int profondeurTransaction;
+    private boolean notificationEnAttente;
+    private boolean rafraichissementComplet;   // tout le terrain a changé (remplirTerrain)
+
     // --------------------
     // Constructeur
     // --------------------
@@ -42,20 +114,105 @@ public class Grille implements Sujet {
     public Grille(int nbLignes, int nbColonnes, GestionnaireJeu gestionnaire) {
         this.nbLignes = nbLignes;
         this.nbColonnes = nbColonnes;
-        this.cases = new Case[nbLignes][nbColonnes];
+        this.types = new byte[nbLignes * nbColonnes];     // VIDE = 0
+        this.occupants = new int[nbLignes * nbColonnes];
+        this.menaces = new byte[nbLignes * nbColonnes];
+        this.entites = new ArrayList<>();
+        this.numeros = new IdentityHashMap<>();
         this.gestionnaire = gestionnaire;
         this.robots = new ArrayList<>();
         this.intrus = new ArrayList<>();
         this.sacs = new ArrayList<>();
         this.sorties = new ArrayList<>();
         this.observateurs = new ArrayList<>();
+        this.casesModifiees = new LinkedHashSet<>();
+        this.porteursSacs = new IdentityHashMap<>();
+        this.positions = (long) nbLignes * nbColonnes <= MAX_POSITIONS ? new Position[nbLignes * nbColonnes] : null;
+        publierInstantane();
+    }
 
-        // Initialisation des cases vides
-        for (int i = 0; i < nbLignes; i++) {
-            for (int j = 0; j < nbColonnes; j++) {
-                cases[i][j] = new Case(new Position(i, j), TypeCase.VIDE);
+    /**
+     * Copie profonde : terrain, occupants et entités (sacs portés compris).
+     * La copie n'a pas d'observateurs ; elle sert aux recherches de l'IA.
+     */
+    private Grille(Grille source, GestionnaireJeu gestionnaire) {
+        this.nbLignes = source.nbLignes;
+        this.nbColonnes = source.nbColonnes;
+        this.types = source.types.clone();
+        this.occupants = source.occupants.clone();
+        this.menaces = source.menaces.clone();
+        this.gestionnaire = gestionnaire;
+        this.voisinage = source.voisinage;
+        this.positions = source.positions;
+        this.observateurs = new ArrayList<>();
+        this.casesModifiees = new LinkedHashSet<>();
+        this.sorties = new ArrayList<>(source.sorties);
+        this.hashZobrist = source.hashZobrist;
+
+        // Même numérotation que la source : occupants reste valide tel quel
+        Map<Entite, Entite> copies = new IdentityHashMap<>();
+        this.entites = new ArrayList<>(source.entites.size());
+        this.numeros = new IdentityHashMap<>();
+        for (Entite e : source.entites) {
+            Entite copie = copierEntite(e, copies);
+            entites.add(copie);
+            numeros.put(copie, entites.size());
+        }
+        this.robots = new ArrayList<>(source.robots.size());
+        for (Robot r : source.robots) robots.add((Robot) copierEntite(r, copies));
+        this.intrus = new ArrayList<>(source.intrus.size());
+        for (Intrus i : source.intrus) intrus.add((Intrus) copierEntite(i, copies));
+        this.sacs = new ArrayList<>(source.sacs.size());
+        for (SacArgent s : source.sacs) sacs.add((SacArgent) copierEntite(s, copies));
+
+        // Liens sac <-> intrus et index des sacs au sol
+        for (Map.Entry<Entite, Entite> e : copies.entrySet()) {
+            if (e.getKey() instanceof Intrus) {
+                for (SacArgent s : ((Intrus) e.getKey()).getSacsPortes()) {
+                    ((Intrus) e.getValue()).getSacsPortes().add((SacArgent) copierEntite(s, copies));
+                }
+            } else if (e.getKey() instanceof SacArgent) {
+                SacArgent original = (SacArgent) e.getKey();
+                SacArgent copie = (SacArgent) e.getValue();
+                if (original.getPorteur() != null) copie.setPorteur((Intrus) copierEntite(original.getPorteur(), copies));
+                copie.setGrille(this);
             }
         }
+        if (source.sacsAuSol != null) {
+            this.sacsAuSol = new SacArgent[source.sacsAuSol.length];
+            for (int i = 0; i < sacsAuSol.length; i++) {
+                if (source.sacsAuSol[i] != null) sacsAuSol[i] = (SacArgent) copierEntite(source.sacsAuSol[i], copies);
+            }
+        }
+        this.porteursSacs = new IdentityHashMap<>();
+        for (Map.Entry<SacArgent, Integer> e : source.porteursSacs.entrySet()) {
+            porteursSacs.put((SacArgent) copierEntite(e.getKey(), copies), e.getValue());
+        }
+
+        // Le champ de distances ne dépend que du terrain : partagé jusqu'à la prochaine modification
+        if (source.distancesSorties != null) {
+            this.distancesSorties = source.distancesSorties;
+            this.distancesPartagees = true;
+            source.distancesPartagees = true;
+        }
+        publierInstantane();
+    }
+
+    /**
+     * Copie profonde de la grille, rattachée au gestionnaire donné.
+     */
+    public Grille copier(GestionnaireJeu gestionnaire) {
+        return new Grille(this, gestionnaire);
+    }
+
+    private static Entite copierEntite(Entite e, Map<Entite, Entite> copies) {
+        Entite copie = copies.get(e);
+        if (copie != null) return copie;
+        if (e instanceof Robot) copie = new Robot((Robot) e);
+        else if (e instanceof Intrus) copie = new Intrus((Intrus) e);
+        else copie = new SacArgent((SacArgent) e);
+        copies.put(e, copie);
+        return copie;
     }
 
     // --------------------
@@ -63,15 +220,23 @@ public class Grille implements Sujet {
     // --------------------
     public void ajouterObstacle(Position pos) {
         if (positionValide(pos)) {
-            cases[pos.getX()][pos.getY()] = new Case(pos, TypeCase.OBSTACLE);
+            int index = index(pos);
+            ecrireType(index, TypeCase.OBSTACLE);
+            placerEntite(index, null);
+            detacherDistances();
+            if (distancesSorties != null) distancesSorties.obstacleAjoute(index);
             notifierObservateurs();
         }
     }
 
     public void ajouterSortie(Position pos) {
         if (positionValide(pos)) {
-            cases[pos.getX()][pos.getY()] = new Case(pos, TypeCase.SORTIE);
+            int index = index(pos);
+            ecrireType(index, TypeCase.SORTIE);
+            placerEntite(index, null);
             sorties.add(pos);
+            detacherDistances();
+            if (distancesSorties != null) distancesSorties.sortieAjoutee(index);
             notifierObservateurs();
         }
     }
@@ -79,8 +244,9 @@ public class Grille implements Sujet {
     public void ajouterRobot(Robot robot) {
         Position pos = robot.getPosition();
         if (positionValide(pos) && caseEstLibre(pos)) {
-            cases[pos.getX()][pos.getY()].setEntite(robot);
+            placerEntite(index(pos), robot);
             robots.add(robot);
+            majMenaces(pos, 1);
             notifierObservateurs();
         }
     }
@@ -88,7 +254,7 @@ public class Grille implements Sujet {
     public void ajouterIntrus(Intrus intrusObj) {
         Position pos = intrusObj.getPosition();
         if (positionValide(pos) && caseEstLibre(pos)) {
-            cases[pos.getX()][pos.getY()].setEntite(intrusObj);
+            placerEntite(index(pos), intrusObj);
             intrus.add(intrusObj);
             notifierObservateurs();
         }
@@ -98,19 +264,52 @@ public class Grille implements Sujet {
     Position pos = sac.getPosition();
     if (positionValide(pos)) {
         // Vérifier que la case n'a pas d'entité mobile (robot/intrus)
-        Case casePos = getCase(pos);
-        if (casePos.getEntite() == null) {
-            // Ajouter le sac à la liste
+        int index = index(pos);
+        if (occupants[index] == 0) {
+            // Ajouter le sac à la liste et à l'index spatial
             sacs.add(sac);
+            sac.setGrille(this);
+            indexerSac(sac);
             
             // IMPORTANT : Placer le sac sur la case pour l'affichage
-            casePos.setEntite(sac);
+            placerEntite(index, sac);
             
-            System.out.println("💰 Sac ajouté à la position " + pos);
+            if (LOG.isDebugEnabled()) LOG.debug("💰 Sac ajouté à la position {}", pos);
             notifierObservateurs();
         }
     }
 }
+    /**
+     * Écriture directe de tout le terrain (générateurs de très grandes grilles).
+     * Le tableau reçu est le stockage de la grille : ordinaux de TypeCase indexés
+     * x * nbColonnes + y, contenant le terrain actuel. Il peut être rempli en parallèle
+     * par zones disjointes ; il ne doit plus être utilisé après le retour.
+     * Ensuite : liste des sorties reconstruite, distances invalidées,
+     * un rafraîchissement complet pour les observateurs (pas une notification par case).
+     *
+     * @throws IllegalStateException si des entités sont déjà posées
+     */
+    public void remplirTerrain(Consumer<byte[]> remplissage) {
+        if (!robots.isEmpty() || !intrus.isEmpty() || !sacs.isEmpty()) {
+            throw new IllegalStateException("Le terrain se remplit avant de poser les entités");
+        }
+        if (typesPartages) {
+            types = types.clone();
+            typesPartages = false;
+        }
+        remplissage.accept(types);
+
+        sorties.clear();
+        for (int index = 0; index < types.length; index++) {
+            if (types[index] == TypeCase.SORTIE.ordinal()) sorties.add(positionDe(index));
+        }
+        distancesSorties = null;
+        distancesPartagees = false;
+        instantanePerime = true;
+        rafraichissementComplet = true;
+        notifierObservateurs();
+    }
+
     // --------------------
     // Méthodes de validation
     // --------------------
@@ -120,12 +319,115 @@ public class Grille implements Sujet {
     }
 
     public boolean caseEstLibre(Position pos) {
-        return positionValide(pos) && cases[pos.getX()][pos.getY()].estLibre();
+        return positionValide(pos) && estLibre(index(pos));
     }
 
+    /**
+     * Vue objet d'une case (configuration, compatibilité) : une instance par appel.
+     * Les chemins d'un coup lisent directement entiteA / typeA / estSortie.
+     */
     public Case getCase(Position pos) {
         if (!positionValide(pos)) return null;
-        return cases[pos.getX()][pos.getY()];
+        return new Case(this, index(pos));
+    }
+
+    // --------------------
+    // Accès au stockage compact
+    // --------------------
+    public int index(int x, int y) {
+        return x * nbColonnes + y;
+    }
+
+    public int index(Position pos) {
+        return index(pos.getX(), pos.getY());
+    }
+
+    /**
+     * Position de la case : toujours la même instance pour cette grille et ses copies
+     * (sauf au-delà de MAX_POSITIONS cases, où chaque appel en crée une).
+     */
+    public Position positionDe(int index) {
+        if (positions == null) return new Position(index / nbColonnes, index % nbColonnes);
+        Position p = positions[index];
+        if (p == null) {
+            // Course bénigne entre copies lues par plusieurs fils : Position est immuable
+            p = new Position(index / nbColonnes, index % nbColonnes);
+            positions[index] = p;
+        }
+        return p;
+    }
+
+    /**
+     * Position (x, y) : celle de la grille si la case existe, sinon une nouvelle instance.
+     */
+    public Position position(int x, int y) {
+        if (x < 0 || x >= nbLignes || y < 0 || y >= nbColonnes) return new Position(x, y);
+        return positionDe(index(x, y));
+    }
+
+    /**
+     * Case voisine dans une direction, comme pos.deplacer(direction) mais sans allocation.
+     */
+    public Position voisine(Position pos, Direction direction) {
+        return position(pos.getX() + direction.getDx(), pos.getY() + direction.getDy());
+    }
+
+    public TypeCase typeA(int index) {
+        return TYPES[types[index]];
+    }
+
+    public Entite entiteA(int index) {
+        int occupant = occupants[index];
+        return occupant == 0 ? null : entites.get(occupant - 1);
+    }
+
+    public boolean estSortie(Position pos) {
+        return positionValide(pos) && types[index(pos)] == TypeCase.SORTIE.ordinal();
+    }
+
+    public boolean estLibre(int index) {
+        return occupants[index] == 0 && types[index] != TypeCase.OBSTACLE.ordinal();
+    }
+
+    /**
+     * Retire l'occupant d'une case, sans notification.
+     */
+    public void viderCase(int index) {
+        placerEntite(index, null);
+    }
+
+    /**
+     * Seule écriture du terrain : si le tableau est référencé par un instantané,
+     * on travaille désormais sur une copie.
+     */
+    private void ecrireType(int index, TypeCase type) {
+        if (typesPartages) {
+            types = types.clone();
+            typesPartages = false;
+        }
+        types[index] = (byte) type.ordinal();
+        instantanePerime = true;
+    }
+
+    /**
+     * Pose (ou retire si null) une entité sur une case.
+     * L'entité reçoit un numéro la première fois qu'elle est posée.
+     */
+    void placerEntite(int index, Entite entite) {
+        marquerModifiee(index);
+        if (occupants[index] != 0) hashZobrist ^= Zobrist.cle(index, entites.get(occupants[index] - 1));
+        if (entite == null) {
+            occupants[index] = 0;
+            return;
+        }
+        hashZobrist ^= Zobrist.cle(index, entite);
+        Integer numero = numeros.get(entite);
+        if (numero == null) {
+            numero = entites.size() + 1;
+            entites.add(entite);
+            numeros.put(entite, numero);
+        }
+        occupants[index] = numero;
     }
 
     // --------------------
@@ -133,42 +435,84 @@ public class Grille implements Sujet {
     // --------------------
     public List<Intrus> getIntrusAdjacents(Position pos) {
         List<Intrus> adj = new ArrayList<>();
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0) continue;
-                Position p = new Position(pos.getX() + dx, pos.getY() + dy);
-                if (positionValide(p)) {
-                    Case c = getCase(p);
-                    Entite e = c.getEntite();
-                    if (e instanceof Intrus) adj.add((Intrus) e);
-                }
-            }
+        if (!positionValide(pos)) return adj;
+        Voisinage v = getVoisinage();
+        int index = index(pos);
+        for (int k = 0; k < v.nbVoisins8(index); k++) {
+            Entite e = entiteA(v.voisin8(index, k));
+            if (e instanceof Intrus) adj.add((Intrus) e);
         }
         return adj;
     }
 
     public List<SacArgent> getSacsAdjacents(Position pos) {
         List<SacArgent> adj = new ArrayList<>();
-        for (int dx = -1; dx <= 1; dx++) {
-            for (int dy = -1; dy <= 1; dy++) {
-                if (dx == 0 && dy == 0) continue;
-                Position p = new Position(pos.getX() + dx, pos.getY() + dy);
-                if (positionValide(p)) {
-                    for (SacArgent sac : sacs) {
-                        if (!sac.estRamasse() && sac.getPosition().equals(p)) {
-                            adj.add(sac);
-                        }
-                    }
-                }
+        if (sacsAuSol == null || !positionValide(pos)) return adj;
+        Voisinage v = getVoisinage();
+        int index = index(pos);
+        for (int k = 0; k < v.nbVoisins8(index); k++) {
+            SacArgent sac = sacsAuSol[v.voisin8(index, k)];
+            if (sac != null && !sac.estRamasse()) {
+                adj.add(sac);
             }
         }
         return adj;
     }
 
+    /**
+     * Retourne le sac posé au sol sur cette case, ou null.
+     */
+    public SacArgent getSacA(Position pos) {
+        if (sacsAuSol == null || !positionValide(pos)) return null;
+        return sacsAuSol[index(pos)];
+    }
+
+    // --------------------
+    // Index spatial des sacs
+    // --------------------
+    /**
+     * Enregistre le sac sur sa case actuelle (appelé quand il est posé ou rendu).
+     */
+    public void indexerSac(SacArgent sac) {
+        Position pos = sac.getPosition();
+        if (!positionValide(pos)) return;
+        if (sacsAuSol == null) sacsAuSol = new SacArgent[nbLignes * nbColonnes];
+        int index = index(pos);
+        if (sacsAuSol[index] != sac) {
+            if (sacsAuSol[index] != null) hashZobrist ^= Zobrist.cle(index, Zobrist.SAC_AU_SOL, sacsAuSol[index].getId());
+            hashZobrist ^= Zobrist.cle(index, Zobrist.SAC_AU_SOL, sac.getId());
+        }
+        Integer porteur = porteursSacs.remove(sac);
+        if (porteur != null) hashZobrist ^= Zobrist.cle(sac.getId(), Zobrist.SAC_PORTE, porteur);
+        sacsAuSol[index] = sac;
+        marquerModifiee(index);
+    }
+
+    /**
+     * Retire le sac de l'index (appelé quand un intrus le ramasse, après setPorteur) :
+     * l'empreinte compte alors le sac comme porté par ce porteur.
+     */
+    public void desindexerSac(SacArgent sac) {
+        Position pos = sac.getPosition();
+        if (sacsAuSol == null || !positionValide(pos)) return;
+        int index = index(pos);
+        if (sacsAuSol[index] == sac) {
+            sacsAuSol[index] = null;
+            hashZobrist ^= Zobrist.cle(index, Zobrist.SAC_AU_SOL, sac.getId());
+        }
+        Intrus porteur = sac.getPorteur();
+        if (porteur != null && !porteursSacs.containsKey(sac)) {
+            porteursSacs.put(sac, porteur.getId());
+            hashZobrist ^= Zobrist.cle(sac.getId(), Zobrist.SAC_PORTE, porteur.getId());
+        }
+        marquerModifiee(index);
+    }
+
     public Robot getRobotA(Position pos) {
-        Case c = getCase(pos);
-        if (c != null && c.getEntite() instanceof Robot) {
-            return (Robot) c.getEntite();
+        if (!positionValide(pos)) return null;
+        Entite e = entiteA(index(pos));
+        if (e instanceof Robot) {
+            return (Robot) e;
         }
         return null;
     }
@@ -183,27 +527,28 @@ public boolean deplacerEntite(Entite entite, Position nouvellePos) {
 
     // Retirer de l'ancienne case
     Position anciennePos = entite.getPosition();
-    Case ancienneCase = getCase(anciennePos);
-    if (ancienneCase != null) {
-        ancienneCase.setEntite(null);
+    if (positionValide(anciennePos)) {
+        placerEntite(index(anciennePos), null);
     }
 
     // Placer dans la nouvelle case
     entite.setPosition(nouvellePos);
-    Case nouvelleCase = getCase(nouvellePos);
-    if (nouvelleCase != null) {
-        nouvelleCase.setEntite(entite);
+    int nouvelIndex = index(nouvellePos);
+    placerEntite(nouvelIndex, entite);
+    if (entite instanceof Robot && entite.estVivant()) {
+        majMenaces(anciennePos, -1);
+        majMenaces(nouvellePos, 1);
     }
-    Entite e = getCase(nouvellePos).getEntite();
+    Entite e = entiteA(nouvelIndex);
     if (entite instanceof Intrus && e instanceof SacArgent) {
         SacArgent sac = (SacArgent) e;
         if (!sac.estRamasse()) {
             ((Intrus) entite).ramasserSac(sac);
             sac.estRamasse=true;
             // Retirer de la grille visuellement
-            getCase(nouvellePos).setEntite(entite); // intrus reste
+            placerEntite(nouvelIndex, entite); // intrus reste
             notifierObservateurs();
-            System.out.println("💰 Sac ramassé par Intrus #" + ((Intrus) entite).getId());
+            if (LOG.isDebugEnabled()) LOG.debug("💰 Sac ramassé par Intrus #{}", ((Intrus) entite).getId());
         }
     }
 
@@ -220,11 +565,9 @@ public boolean deplacerEntite(Entite entite, Position nouvellePos) {
             // Capturer le premier intrus trouvé
             Intrus intrusCapture = intrusAdjacents.get(0);
             
-            System.out.println("═══════════════════════════════════════");
-            System.out.println("🎯 CAPTURE AUTOMATIQUE !");
-            System.out.println("   Robot #" + robot.getId() + 
-                             " a capturé Intrus #" + intrusCapture.getId());
-            System.out.println("═══════════════════════════════════════");
+            if (LOG.isDebugEnabled()) {
+                LOG.debug("🎯 CAPTURE AUTOMATIQUE ! Robot #{} a capturé Intrus #{}", robot.getId(), intrusCapture.getId());
+            }
             
             // Le robot attrape l'intrus
             robot.attraperIntrus(intrusCapture,Grille.this);
@@ -259,11 +602,153 @@ public boolean deplacerEntite(Entite entite, Position nouvellePos) {
         observateurs.remove(o);
     }
 
+    /**
+     * Notifie les observateurs avec les cases modifiées depuis la dernière notification.
+     * Pendant une transaction, la notification est différée jusqu'à validerTransaction().
+     */
     @Override
     public void notifierObservateurs() {
+        if (profondeurTransaction > 0) {
+            notificationEnAttente = true;
+            return;
+        }
+        notificationEnAttente = false;
+        if (rafraichissementComplet) {
+            rafraichissementComplet = false;
+            casesModifiees.clear();
+            for (ObservateurGrille o : observateurs) o.onGrilleModifiee();
+            return;
+        }
+        Set<Position> modifiees = Collections.unmodifiableSet(new LinkedHashSet<>(casesModifiees));
+        casesModifiees.clear();
         for (ObservateurGrille o : observateurs) {
-            o.onGrilleModifiee();
+            o.onGrilleModifiee(modifiees);
+        }
+    }
+
+    // --------------------
+    // Transactions
+    // --------------------
+    /**
+     * Ouvre une transaction : les notifications sont regroupées en une seule.
+     * Les transactions peuvent être imbriquées.
+     */
+    public void debuterTransaction() {
+        profondeurTransaction++;
+    }
+
+    /**
+     * Ferme une transaction ; la plus externe déclenche une unique notification
+     * si au moins une modification a eu lieu.
+     */
+    public void validerTransaction() {
+        if (profondeurTransaction == 0) {
+            throw new IllegalStateException("Aucune transaction en cours");
+        }
+        if (--profondeurTransaction == 0) {
+            if (instantanePerime && publicationInstantanes) publierInstantane();
+            if (notificationEnAttente || !casesModifiees.isEmpty()) notifierObservateurs();
+        }
+    }
+
+    /**
+     * Exécute les modifications dans une seule transaction.
+     */
+    public void batch(Runnable modifications) {
+        debuterTransaction();
+        try {
+            modifications.run();
+        } finally {
+            validerTransaction();
+        }
+    }
+
+    public boolean enTransaction() {
+        return profondeurTransaction > 0;
+    }
+
+    private void marquerModifiee(int index) {
+        instantanePerime = true;
+        if (!observateurs.isEmpty()) casesModifiees.add(positionDe(index));
+    }
+
+    // --------------------
+    // Instantanés
+    // --------------------
+    /**
+     * Dernier instantané publié ; jamais null, lisible depuis n'importe quel fil.
+     */
+    public InstantaneGrille getInstantane() {
+        return instantane;
+    }
+
+    /**
+     * Publication automatique en fin de transaction (activée par défaut).
+     * Une partie sans lecteur concurrent (simulation de masse) peut s'en passer.
+     */
+    public void setPublicationInstantanes(boolean active) {
+        this.publicationInstantanes = active;
+    }
+
+    /**
+     * Fige l'état courant dans un nouvel instantané (fil propriétaire de la grille uniquement).
+     * Appelé à la fin de chaque transaction externe ; à appeler aussi après un changement
+     * fait hors transaction (début de partie, configuration).
+     * Coût : O(e log e) pour e entités, le terrain étant partagé.
+     */
+    public void publierInstantane() {
+        // Occupants des cases : (index, genre) triés par index
+        long[] cles = new long[robots.size() + intrus.size() + sacs.size()];
+        int n = 0;
+        n = noterOccupants(robots, InstantaneGrille.ROBOT, cles, n);
+        n = noterOccupants(intrus, InstantaneGrille.INTRUS, cles, n);
+        n = noterOccupants(sacs, InstantaneGrille.SAC, cles, n);
+        Arrays.sort(cles, 0, n);
+        int[] casesOccupees = new int[n];
+        byte[] genres = new byte[n];
+        for (int k = 0; k < n; k++) {
+            casesOccupees[k] = (int) (cles[k] >>> 8);
+            genres[k] = (byte) cles[k];
+        }
+
+        int[] casesRobots = new int[robots.size()];
+        for (int k = 0; k < casesRobots.length; k++) casesRobots[k] = index(robots.get(k).getPosition());
+        int[] casesIntrus = new int[intrus.size()];
+        int[] portes = new int[intrus.size()];
+        for (int k = 0; k < casesIntrus.length; k++) {
+            casesIntrus[k] = index(intrus.get(k).getPosition());
+            portes[k] = intrus.get(k).getSacsPortes().size();
         }
+        int nbAuSol = 0;
+        int[] casesSacs = new int[sacs.size()];
+        for (SacArgent sac : sacs) {
+            if (!sac.estRamasse() && positionValide(sac.getPosition())) casesSacs[nbAuSol++] = index(sac.getPosition());
+        }
+
+        EtatJeu etat = gestionnaire != null ? gestionnaire.getEtatActuel() : null;
+        typesPartages = true;
+        instantanePerime = false;
+        instantane = new InstantaneGrille(++versionInstantane, nbLignes, nbColonnes, types,
+                casesOccupees, genres, casesRobots, casesIntrus, portes, Arrays.copyOf(casesSacs, nbAuSol),
+                etat != null ? etat : EtatJeu.CONFIGURATION,
+                gestionnaire != null && gestionnaire.getTourActuel() != 0 ? gestionnaire.getTourActuel() : 1,
+                gestionnaire != null ? gestionnaire.getNombreToursJoues() : 0,
+                gestionnaire != null ? gestionnaire.getIntrusCaptures() : 0,
+                gestionnaire != null ? gestionnaire.getIntrusEchappes() : 0,
+                gestionnaire != null ? gestionnaire.getSacsVoles() : 0,
+                hashZobrist);
+    }
+
+    /**
+     * Ajoute (index << 8 | genre) pour chaque entité réellement présente sur sa case.
+     */
+    private int noterOccupants(List<? extends Entite> liste, byte genre, long[] cles, int n) {
+        for (Entite e : liste) {
+            if (!positionValide(e.getPosition())) continue;
+            int index = index(e.getPosition());
+            if (entiteA(index) == e) cles[n++] = ((long) index << 8) | genre;
+        }
+        return n;
     }
 
     // --------------------
@@ -292,17 +777,167 @@ public boolean deplacerEntite(Entite entite, Position nouvellePos) {
     // Méthodes utilitaires
     // --------------------
     public void retirerIntrus(Intrus i) {
-        Case c = getCase(i.getPosition());
-        if (c != null) c.setEntite(null);
+        if (positionValide(i.getPosition())) placerEntite(index(i.getPosition()), null);
         intrus.remove(i);
         i.relacherSacs();
         notifierObservateurs();
     }
 
+    // --------------------
+    // Primitives sans règles ni notification (faire / défaire un coup)
+    // --------------------
+    /**
+     * Déplace une entité vers une case, sans captures, sans sacs et sans notification.
+     * L'appel inverse (vers l'ancienne case) annule exactement le déplacement.
+     */
+    public void deplacerBrut(Entite entite, Position nouvellePos) {
+        Position anciennePos = entite.getPosition();
+        placerEntite(index(anciennePos), null);
+        entite.setPosition(nouvellePos);
+        placerEntite(index(nouvellePos), entite);
+        if (entite instanceof Robot && entite.estVivant()) {
+            majMenaces(anciennePos, -1);
+            majMenaces(nouvellePos, 1);
+        }
+    }
+
+    /**
+     * Retire un intrus de sa case et de la liste, sans toucher à ses sacs ni notifier.
+     *
+     * @return son rang dans la liste des intrus, ou -1 s'il n'y était plus
+     */
+    public int enleverIntrus(Intrus i) {
+        if (positionValide(i.getPosition())) {
+            int index = index(i.getPosition());
+            if (entiteA(index) == i) placerEntite(index, null);
+        }
+        int rang = intrus.indexOf(i);
+        if (rang >= 0) intrus.remove(rang);
+        return rang;
+    }
+
+    /**
+     * Annule enleverIntrus : remet l'intrus à son rang et, si demandé, sur sa case.
+     */
+    public void remettreIntrus(Intrus i, int rang, boolean surCase) {
+        if (rang >= 0) intrus.add(rang, i);
+        if (surCase) placerEntite(index(i.getPosition()), i);
+    }
+
+    public void retirerRobot(Robot r) {
+        if (!robots.remove(r)) return;
+        if (positionValide(r.getPosition())) {
+            placerEntite(index(r.getPosition()), null);
+            if (r.estVivant()) majMenaces(r.getPosition(), -1);
+        }
+        notifierObservateurs();
+    }
+
+    // --------------------
+    // Distances aux sorties
+    // --------------------
+    /**
+     * Nombre de coups (8 directions, obstacles évités) jusqu'à la sortie la plus proche,
+     * ou DistancesSorties.INACCESSIBLE. O(1) une fois le champ construit.
+     */
+    public int getDistanceSortie(Position pos) {
+        if (!positionValide(pos)) return DistancesSorties.INACCESSIBLE;
+        return getDistancesSorties().distance(index(pos));
+    }
+
+    public DistancesSorties getDistancesSorties() {
+        if (distancesSorties == null) distancesSorties = new DistancesSorties(this);
+        return distancesSorties;
+    }
+
+    /**
+     * Avant de modifier le terrain : un champ partagé avec une copie est abandonné
+     * (il sera recalculé au prochain besoin).
+     */
+    private void detacherDistances() {
+        if (distancesPartagees) {
+            distancesSorties = null;
+            distancesPartagees = false;
+        }
+    }
+
+    // --------------------
+    // Empreinte de Zobrist
+    // --------------------
+    /**
+     * Empreinte 64 bits du plateau (positions et identités des entités, sacs au sol,
+     * porteur de chaque sac porté, camp au trait), tenue à jour à chaque pose ou retrait : lecture O(1).
+     * Les compteurs de la partie s'y ajoutent dans GestionnaireJeu.getHashZobrist.
+     */
+    public long getHashZobrist() {
+        return hashZobrist;
+    }
+
+    /**
+     * Le trait passe à l'autre camp (appelé par GestionnaireJeu.changerTour).
+     */
+    public void basculerTrait() {
+        hashZobrist ^= Zobrist.TRAIT_INTRUS;
+        instantanePerime = true;
+    }
+
+    /**
+     * Recalcule l'empreinte à partir de zéro (contrôle de la mise à jour incrémentale).
+     */
+    public long calculerHashZobrist(boolean traitAuxIntrus) {
+        long h = traitAuxIntrus ? Zobrist.TRAIT_INTRUS : 0L;
+        for (int i = 0; i < occupants.length; i++) {
+            if (occupants[i] != 0) h ^= Zobrist.cle(i, entites.get(occupants[i] - 1));
+            if (sacsAuSol != null && sacsAuSol[i] != null) h ^= Zobrist.cle(i, Zobrist.SAC_AU_SOL, sacsAuSol[i].getId());
+        }
+        for (SacArgent sac : sacs) {
+            if (sac.getPorteur() != null) h ^= Zobrist.cle(sac.getId(), Zobrist.SAC_PORTE, sac.getPorteur().getId());
+        }
+        return h;
+    }
+
+    // --------------------
+    // Couverture des robots
+    // --------------------
+    /**
+     * Vrai si au moins un robot vivant est adjacent à la position (O(1)).
+     */
+    public boolean estMenacee(Position pos) {
+        return positionValide(pos) && menaces[index(pos)] > 0;
+    }
+
+    public int getMenace(int index) {
+        return menaces[index];
+    }
+
+    /**
+     * Ajoute delta au compteur des 8 cases autour d'un robot.
+     */
+    private void majMenaces(Position posRobot, int delta) {
+        if (!positionValide(posRobot)) return;
+        Voisinage v = getVoisinage();
+        int index = index(posRobot);
+        for (int k = 0; k < v.nbVoisins8(index); k++) {
+            menaces[v.voisin8(index, k)] += delta;
+        }
+    }
+
+    /**
+     * Caractère de la case dans les cartes texte : l'occupant s'il y en a un
+     * (R robot, I intrus, $ sac), sinon le symbole du terrain.
+     */
+    public char symboleA(int index) {
+        Entite e = entiteA(index);
+        if (e instanceof Robot) return SYMBOLE_ROBOT;
+        if (e instanceof Intrus) return SYMBOLE_INTRUS;
+        if (e instanceof SacArgent) return SYMBOLE_SAC;
+        return typeA(index).getSymbole();
+    }
+
     public void afficherGrille() {
         for (int i = 0; i < nbLignes; i++) {
             for (int j = 0; j < nbColonnes; j++) {
-                System.out.print(cases[i][j].getType().name().charAt(0) + " ");
+                System.out.print(symboleA(index(i, j)) + " ");
             }
             System.out.println();
         }
@@ -311,8 +946,13 @@ public boolean deplacerEntite(Entite entite, Position nouvellePos) {
     // --------------------
     // Getters
     // --------------------
+    public GestionnaireJeu getGestionnaire() { return gestionnaire; }
     public int getNbLignes() { return nbLignes; }
     public int getNbColonnes() { return nbColonnes; }
+    public Voisinage getVoisinage() {
+        if (voisinage == null) voisinage = Voisinage.pour(nbLignes, nbColonnes);
+        return voisinage;
+    }
     public List<Robot> getRobots() { return robots; }
     public List<Intrus> getIntrus() { return intrus; }
     public List<SacArgent> getSacs() { return sacs; }
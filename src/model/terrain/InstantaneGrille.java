@@ -0,0 +1,134 @@
+package model.terrain;
+
+import java.util.Arrays;
+
+import model.jeu.EtatJeu;
+
+/**
+ * Vue figée de la grille (et de la partie) après un changement validé,
+ * publiée par Grille.publierInstantane. Classe IMMUABLE : un fil de calcul
+ * (IA, aide, statistiques) peut la lire sans verrou pendant que le fil de
+ * l'interface continue à jouer ; il ne voit jamais un coup à moitié appliqué.
+ *
+ * Le terrain est partagé avec la grille (copie sur écriture côté grille) :
+ * publier un instantané ne coûte que le nombre d'entités, pas la taille de la grille.
+ * Les entités sont décrites par des index de cases, sans référence aux objets
+ * Robot / Intrus / SacArgent, qui continuent d'évoluer.
+ */
+public final class InstantaneGrille {
+
+    // Genres d'occupants (genreA)
+    public static final byte VIDE = 0;
+    public static final byte ROBOT = 1;
+    public static final byte INTRUS = 2;
+    public static final byte SAC = 3;
+
+    private static final TypeCase[] TYPES = TypeCase.values();
+
+    private final long version;
+    private final int nbLignes;
+    private final int nbColonnes;
+    private final byte[] types;           // partagé, jamais modifié une fois publié
+
+    // Occupants : index de cases triés, genre correspondant
+    private final int[] casesOccupees;
+    private final byte[] genres;
+
+    private final int[] robots;           // case de chaque robot
+    private final int[] intrus;           // case de chaque intrus encore en jeu
+    private final int[] sacsPortes;       // nombre de sacs portés par chaque intrus
+    private final int[] sacsAuSol;        // case de chaque sac non ramassé
+
+    // Partie
+    private final EtatJeu etat;
+    private final int tour;
+    private final int toursJoues;
+    private final int intrusCaptures;
+    private final int intrusEchappes;
+    private final int sacsVoles;
+    private final long hashZobrist;
+
+    InstantaneGrille(long version, int nbLignes, int nbColonnes, byte[] types,
+                     int[] casesOccupees, byte[] genres,
+                     int[] robots, int[] intrus, int[] sacsPortes, int[] sacsAuSol,
+                     EtatJeu etat, int tour, int toursJoues,
+                     int intrusCaptures, int intrusEchappes, int sacsVoles, long hashZobrist) {
+        this.version = version;
+        this.nbLignes = nbLignes;
+        this.nbColonnes = nbColonnes;
+        this.types = types;
+        this.casesOccupees = casesOccupees;
+        this.genres = genres;
+        this.robots = robots;
+        this.intrus = intrus;
+        this.sacsPortes = sacsPortes;
+        this.sacsAuSol = sacsAuSol;
+        this.etat = etat;
+        this.tour = tour;
+        this.toursJoues = toursJoues;
+        this.intrusCaptures = intrusCaptures;
+        this.intrusEchappes = intrusEchappes;
+        this.sacsVoles = sacsVoles;
+        this.hashZobrist = hashZobrist;
+    }
+
+    // --------------------
+    // Cases
+    // --------------------
+    public int index(int x, int y) {
+        return x * nbColonnes + y;
+    }
+
+    public TypeCase typeA(int index) {
+        return TYPES[types[index]];
+    }
+
+    /**
+     * Genre de l'occupant de la case (VIDE, ROBOT, INTRUS ou SAC), en O(log n) sur le nombre d'entités.
+     */
+    public byte genreA(int index) {
+        int i = Arrays.binarySearch(casesOccupees, index);
+        return i < 0 ? VIDE : genres[i];
+    }
+
+    /**
+     * Même règle que Grille.estLibre : ni obstacle, ni occupant.
+     */
+    public boolean estLibre(int index) {
+        return types[index] != TypeCase.OBSTACLE.ordinal() && genreA(index) == VIDE;
+    }
+
+    // --------------------
+    // Entités (copies défensives)
+    // --------------------
+    public int[] getRobots() { return robots.clone(); }
+    public int[] getIntrus() { return intrus.clone(); }
+    public int[] getSacsAuSol() { return sacsAuSol.clone(); }
+
+    public int getNbRobots() { return robots.length; }
+    public int getNbIntrus() { return intrus.length; }
+
+    /**
+     * Case du k-ième intrus et nombre de sacs qu'il porte.
+     */
+    public int getCaseIntrus(int k) { return intrus[k]; }
+    public int getSacsPortes(int k) { return sacsPortes[k]; }
+    public int getCaseRobot(int k) { return robots[k]; }
+
+    // --------------------
+    // Getters
+    // --------------------
+    /**
+     * Numéro croissant : deux instantanés de même version décrivent le même état.
+     */
+    public long getVersion() { return version; }
+    public int getNbLignes() { return nbLignes; }
+    public int getNbColonnes() { return nbColonnes; }
+    public EtatJeu getEtat() { return etat; }
+    public int getTour() { return tour; }
+    public int getToursJoues() { return toursJoues; }
+    public int getIntrusCaptures() { return intrusCaptures; }
+    public int getIntrusEchappes() { return intrusEchappes; }
+    public int getSacsVoles() { return sacsVoles; }
+    public long getHashZobrist() { return hashZobrist; }
+}
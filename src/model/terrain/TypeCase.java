@@ -4,7 +4,20 @@ package model.terrain;
  * Enumération des types de cases dans la grille
  */
 public enum TypeCase {
-    VIDE,       // Case normale, libre
-    OBSTACLE,   // Case bloquée, aucune entité ne peut y entrer
-    SORTIE      // Case de sortie pour les intrus
+    VIDE('.'),       // Case normale, libre
+    OBSTACLE('#'),   // Case bloquée, aucune entité ne peut y entrer
+    SORTIE('E');     // Case de sortie pour les intrus
+
+    private final char symbole;
+
+    TypeCase(char symbole) {
+        this.symbole = symbole;
+    }
+
+    /**
+     * Caractère de la case dans les cartes texte (afficherGrille, ConfigLoader).
+     */
+    public char getSymbole() {
+        return symbole;
+    }
 }
@@ -0,0 +1,171 @@
+package model.terrain;
+
+import java.lang.ref.SoftReference;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Tables de voisinage précalculées pour une taille de grille.
+ * Pour chaque case (indexée par x * nbColonnes + y), on stocke les index
+ * de ses voisines en 4-connexité et en 8-connexité, bords déjà exclus.
+ *
+ * Parcours sans itérateur :
+ * <pre>
+ * for (int k = 0; k &lt; v.nbVoisins8(i); k++) { int j = v.voisin8(i, k); ... }
+ * </pre>
+ * Les tables sont immuables et partagées entre grilles de même taille, par des
+ * références souples (SoftReference) : le ramasse-miettes peut les reprendre.
+ * Au-delà de SEUIL_TABLES cases (12 int par case), aucune table n'est construite :
+ * les voisines sont calculées à la volée (x ± 1, y ± 1), dans le même ordre.
+ */
+public final class Voisinage {
+
+    // Ordre des 8 voisines : dx puis dy de -1 à 1 (même ordre que les anciennes boucles)
+    private static final int[] DX8 = {-1, -1, -1, 0, 0, 1, 1, 1};
+    private static final int[] DY8 = {-1, 0, 1, -1, 1, -1, 0, 1};
+
+    // Ordre des 4 voisines : haut, bas, gauche, droite
+    private static final int[] DX4 = {-1, 1, 0, 0};
+    private static final int[] DY4 = {0, 0, -1, 1};
+
+    // Au-delà, les tables coûteraient plus de 50 Mo : calcul à la volée
+    static final int SEUIL_TABLES = 1 << 22;
+
+    private static final Map<Long, SoftReference<Voisinage>> CACHE = new ConcurrentHashMap<>();
+
+    private final int nbLignes;
+    private final int nbColonnes;
+
+    // null au-delà de SEUIL_TABLES cases
+    private final int[] voisins4;   // 4 emplacements par case
+    private final byte[] nbVoisins4;
+    private final int[] voisins8;   // 8 emplacements par case
+    private final byte[] nbVoisins8;
+
+    /**
+     * Retourne le voisinage d'une taille de grille : tables partagées (recalculées
+     * si le ramasse-miettes les a reprises), ou calcul à la volée pour les très grandes grilles.
+     */
+    public static Voisinage pour(int nbLignes, int nbColonnes) {
+        if ((long) nbLignes * nbColonnes > SEUIL_TABLES) return new Voisinage(nbLignes, nbColonnes, false);
+        long cle = ((long) nbLignes << 32) | (nbColonnes & 0xffffffffL);
+        SoftReference<Voisinage> ref = CACHE.get(cle);
+        Voisinage v = ref == null ? null : ref.get();
+        if (v == null) {
+            v = new Voisinage(nbLignes, nbColonnes, true);
+            CACHE.values().removeIf(r -> r.get() == null);
+            CACHE.put(cle, new SoftReference<>(v));
+        }
+        return v;
+    }
+
+    private Voisinage(int nbLignes, int nbColonnes, boolean tables) {
+        this.nbLignes = nbLignes;
+        this.nbColonnes = nbColonnes;
+        if (!tables) {
+            this.voisins4 = null;
+            this.nbVoisins4 = null;
+            this.voisins8 = null;
+            this.nbVoisins8 = null;
+            return;
+        }
+        int n = nbLignes * nbColonnes;
+        this.voisins4 = new int[n * 4];
+        this.nbVoisins4 = new byte[n];
+        this.voisins8 = new int[n * 8];
+        this.nbVoisins8 = new byte[n];
+
+        for (int x = 0; x < nbLignes; x++) {
+            for (int y = 0; y < nbColonnes; y++) {
+                int index = x * nbColonnes + y;
+                nbVoisins4[index] = (byte) remplir(x, y, DX4, DY4, voisins4, index * 4);
+                nbVoisins8[index] = (byte) remplir(x, y, DX8, DY8, voisins8, index * 8);
+            }
+        }
+    }
+
+    private int remplir(int x, int y, int[] dx, int[] dy, int[] table, int debut) {
+        int nb = 0;
+        for (int k = 0; k < dx.length; k++) {
+            int vx = x + dx[k];
+            int vy = y + dy[k];
+            if (vx >= 0 && vx < nbLignes && vy >= 0 && vy < nbColonnes) {
+                table[debut + nb++] = vx * nbColonnes + vy;
+            }
+        }
+        return nb;
+    }
+
+    // --------------------
+    // 4-connexité
+    // --------------------
+    public int nbVoisins4(int index) {
+        return nbVoisins4 != null ? nbVoisins4[index] : compter(index, DX4, DY4);
+    }
+
+    public int voisin4(int index, int k) {
+        return voisins4 != null ? voisins4[index * 4 + k] : kieme(index, k, DX4, DY4);
+    }
+
+    // --------------------
+    // 8-connexité
+    // --------------------
+    public int nbVoisins8(int index) {
+        return nbVoisins8 != null ? nbVoisins8[index] : compter(index, DX8, DY8);
+    }
+
+    public int voisin8(int index, int k) {
+        return voisins8 != null ? voisins8[index * 8 + k] : kieme(index, k, DX8, DY8);
+    }
+
+    // --------------------
+    // Calcul à la volée (très grandes grilles)
+    // --------------------
+    private boolean interieure(int x, int y) {
+        return x > 0 && y > 0 && x < nbLignes - 1 && y < nbColonnes - 1;
+    }
+
+    private int compter(int index, int[] dx, int[] dy) {
+        int x = index / nbColonnes;
+        int y = index % nbColonnes;
+        if (interieure(x, y)) return dx.length;
+        int nb = 0;
+        for (int k = 0; k < dx.length; k++) {
+            int vx = x + dx[k];
+            int vy = y + dy[k];
+            if (vx >= 0 && vx < nbLignes && vy >= 0 && vy < nbColonnes) nb++;
+        }
+        return nb;
+    }
+
+    /**
+     * k-ième voisine dans la grille, bords exclus : même résultat que les tables.
+     */
+    private int kieme(int index, int k, int[] dx, int[] dy) {
+        int x = index / nbColonnes;
+        int y = index % nbColonnes;
+        if (interieure(x, y)) return index + dx[k] * nbColonnes + dy[k];
+        int reste = k;
+        for (int d = 0; d < dx.length; d++) {
+            int vx = x + dx[d];
+            int vy = y + dy[d];
+            if (vx >= 0 && vx < nbLignes && vy >= 0 && vy < nbColonnes && reste-- == 0) return vx * nbColonnes + vy;
+        }
+        throw new IndexOutOfBoundsException("Voisine " + k + " de la case " + index);
+    }
+
+    /**
+     * Vrai si les deux cases sont voisines en 8-connexité.
+     */
+    public boolean sontAdjacentes(int a, int b) {
+        int dx = Math.abs(a / nbColonnes - b / nbColonnes);
+        int dy = Math.abs(a % nbColonnes - b % nbColonnes);
+        return dx <= 1 && dy <= 1 && a != b;
+    }
+
+    // --------------------
+    // Getters
+    // --------------------
+    public int getNbLignes() { return nbLignes; }
+    public int getNbColonnes() { return nbColonnes; }
+}
@@ -0,0 +1,63 @@
+package model.terrain;
+
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.entites.SacArgent;
+
+/**
+ * Clés de Zobrist pour identifier un état de jeu par un entier 64 bits.
+ *
+ * Au lieu d'une table aléatoire (cases x genres x identifiants), chaque clé est
+ * obtenue en mélangeant (case, genre, id) avec la fonction de SplitMix64 :
+ * les clés sont fixes, réparties comme des valeurs aléatoires, et ne coûtent pas de mémoire.
+ * L'empreinte d'un état est le XOR des clés de ses éléments ; un changement
+ * se répercute en retirant l'ancienne clé puis en ajoutant la nouvelle (XOR).
+ */
+public final class Zobrist {
+
+    // Genres d'éléments
+    static final int ROBOT = 1;
+    static final int INTRUS = 2;
+    static final int SAC = 3;         // sac occupant sa case
+    static final int SAC_AU_SOL = 4;  // sac non ramassé (sinon porté par un intrus)
+    static final int SAC_PORTE = 5;   // sac porté : clé (id du sac, genre, id du porteur)
+
+    /** Clé ajoutée quand c'est aux intrus de jouer. */
+    public static final long TRAIT_INTRUS = melanger(0x5EED_7A17L);
+
+    private Zobrist() {
+    }
+
+    /**
+     * Clé d'une entité posée sur une case.
+     */
+    static long cle(int index, Entite entite) {
+        if (entite instanceof Robot) return cle(index, ROBOT, ((Robot) entite).getId());
+        if (entite instanceof Intrus) return cle(index, INTRUS, ((Intrus) entite).getId());
+        return cle(index, SAC, ((SacArgent) entite).getId());
+    }
+
+    /**
+     * Clé des compteurs de la partie (captures, évasions, sacs volés) : deux suites de coups
+     * qui mènent au même plateau avec des bilans différents n'ont pas la même empreinte.
+     */
+    public static long compteurs(int captures, int echappes, int sacsVoles) {
+        if ((captures | echappes | sacsVoles) == 0) return 0L;
+        return melanger(((long) captures << 42) ^ ((long) echappes << 21) ^ sacsVoles ^ 0xC0_4D7EL);
+    }
+
+    static long cle(int index, int genre, int id) {
+        return melanger(((long) index << 32) ^ ((long) genre << 24) ^ (id & 0xffffffL));
+    }
+
+    /**
+     * Finaliseur de SplitMix64.
+     */
+    private static long melanger(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
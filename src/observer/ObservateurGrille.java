@@ -1,5 +1,9 @@
 package observer;
 
+import java.util.Set;
+
+import utils.Position;
+
 /**
  * Interface pour les observateurs de la grille
  */
@@ -8,4 +12,14 @@ public interface ObservateurGrille {
      * Méthode appelée quand la grille est modifiée
      */
     void onGrilleModifiee();
+
+    /**
+     * Méthode appelée une fois par transaction avec les cases modifiées.
+     * Par défaut, délègue à onGrilleModifiee() (rafraîchissement complet).
+     *
+     * @param casesModifiees cases dont le terrain ou l'occupant a changé (non modifiable)
+     */
+    default void onGrilleModifiee(Set<Position> casesModifiees) {
+        onGrilleModifiee();
+    }
 }
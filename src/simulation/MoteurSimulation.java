@@ -0,0 +1,165 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Function;
+
+import controller.ValidationMouvement;
+import ia.Coup;
+import ia.Strategie;
+import model.entites.Entite;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import utils.Direction;
+import utils.GenerateurGrilleAleatoire;
+import utils.Position;
+
+/**
+ * Joue des parties complètes sans interface graphique.
+ * Chaque camp est joué par sa stratégie si elle est définie, sinon par un coup légal
+ * tiré au hasard ; un camp sans coup légal passe son tour.
+ * Une même graine donne toujours la même partie.
+ */
+public class MoteurSimulation {
+
+    // Paramètres de la grille générée
+    private int nbLignes = 20;
+    private int nbColonnes = 20;
+    private int pourcentageObstacles = 15;
+    private int pourcentageSorties = 10;
+    private int nbRobots = 2;
+    private int nbIntrus = 3;
+    private int nbSacs = 4;
+    private boolean connexiteGarantie;   // obstacles sans coupure (aucune partie injouable)
+
+    // Garde-fou contre les parties sans fin
+    private int maxTours = 1000;
+
+    // Stratégies (une instance par partie, créée à partir de la grille) ; null = hasard
+    private Function<Grille, Strategie> strategieRobots;
+    private Function<Grille, Strategie> strategieIntrus;
+
+    /**
+     * Joue une partie complète à partir d'une graine.
+     */
+    public ResultatPartie jouerPartie(long graine) {
+        GestionnaireJeu gestionnaire = new GestionnaireJeu(nbLignes, nbColonnes);
+        Grille grille = gestionnaire.getGrille();
+        grille.setPublicationInstantanes(false);   // aucun autre fil ne lit cette partie
+
+        GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(grille, graine);
+        generateur.setPourcentageObstacles(pourcentageObstacles);
+        generateur.setPourcentageSorties(pourcentageSorties);
+        generateur.setNbRobots(nbRobots);
+        generateur.setNbIntrus(nbIntrus);
+        generateur.setNbSacs(nbSacs);
+        generateur.setConnexiteGarantie(connexiteGarantie);
+        generateur.generer();
+
+        gestionnaire.demarrerPartie();
+        Random random = new Random(graine * 0x9E3779B97F4A7C15L + 1);
+        Strategie robots = strategieRobots == null ? null : strategieRobots.apply(grille);
+        Strategie intrus = strategieIntrus == null ? null : strategieIntrus.apply(grille);
+
+        while (gestionnaire.getEtatActuel() == EtatJeu.EN_COURS
+                && gestionnaire.getNombreToursJoues() < maxTours) {
+            Strategie strategie = gestionnaire.getTourActuel() == 1 ? robots : intrus;
+            boolean joue = strategie == null
+                    ? jouerCoupAleatoire(gestionnaire, random)
+                    : jouerCoupStrategie(gestionnaire, strategie);
+            if (!joue) {
+                // Aucun coup légal : le camp passe
+                gestionnaire.incrementerTour();
+                gestionnaire.changerTour();
+            }
+        }
+
+        return new ResultatPartie(graine,
+                gestionnaire.getIntrusCaptures(),
+                gestionnaire.getIntrusEchappes(),
+                gestionnaire.getSacsVoles(),
+                gestionnaire.getNombreToursJoues(),
+                gestionnaire.getEtatActuel() == EtatJeu.TERMINEE);
+    }
+
+    /**
+     * Joue un coup au hasard pour le camp dont c'est le tour.
+     *
+     * @return false si aucun coup n'a pu être joué
+     */
+    private boolean jouerCoupAleatoire(GestionnaireJeu gestionnaire, Random random) {
+        Grille grille = gestionnaire.getGrille();
+        List<? extends Entite> camp = gestionnaire.getTourActuel() == 1 ? grille.getRobots() : grille.getIntrus();
+        if (camp.isEmpty()) return false;
+
+        // Entités parcourues à partir d'un point de départ aléatoire
+        List<Entite> entites = new ArrayList<>(camp);
+        int depart = random.nextInt(entites.size());
+        for (int n = 0; n < entites.size(); n++) {
+            Entite entite = entites.get((depart + n) % entites.size());
+            List<Position> cibles = ValidationMouvement.getPositionsAccessibles(entite, grille);
+
+            while (!cibles.isEmpty()) {
+                Position cible = cibles.remove(random.nextInt(cibles.size()));
+                Position pos = entite.getPosition();
+                Direction dir = Direction.fromDelta(cible.getX() - pos.getX(), cible.getY() - pos.getY());
+
+                if (dir != null && gestionnaire.jouerCoup(entite, dir)) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Joue le coup proposé par la stratégie (même convention de retour que jouerCoupAleatoire).
+     */
+    private boolean jouerCoupStrategie(GestionnaireJeu gestionnaire, Strategie strategie) {
+        Coup coup = strategie.choisirCoup(gestionnaire);
+        return coup != null && coup.getDirection() != null
+                && gestionnaire.jouerCoup(coup.getEntite(), coup.getDirection());
+    }
+
+    // ---- Setters pour configuration ----
+    public void setDimensions(int nbLignes, int nbColonnes) {
+        this.nbLignes = nbLignes;
+        this.nbColonnes = nbColonnes;
+    }
+
+    public void setPourcentageObstacles(int pourcentage) {
+        this.pourcentageObstacles = pourcentage;
+    }
+
+    public void setPourcentageSorties(int pourcentage) {
+        this.pourcentageSorties = pourcentage;
+    }
+
+    public void setNbRobots(int nb) {
+        this.nbRobots = nb;
+    }
+
+    public void setNbIntrus(int nb) {
+        this.nbIntrus = nb;
+    }
+
+    public void setNbSacs(int nb) {
+        this.nbSacs = nb;
+    }
+
+    public void setConnexiteGarantie(boolean active) {
+        this.connexiteGarantie = active;
+    }
+
+    public void setMaxTours(int maxTours) {
+        this.maxTours = Math.max(1, maxTours);
+    }
+
+    public void setStrategieRobots(Function<Grille, Strategie> fabrique) {
+        this.strategieRobots = fabrique;
+    }
+
+    public void setStrategieIntrus(Function<Grille, Strategie> fabrique) {
+        this.strategieIntrus = fabrique;
+    }
+}
@@ -0,0 +1,41 @@
+package simulation;
+
+/**
+ * Résultat d'une partie simulée (immuable).
+ */
+public final class ResultatPartie {
+
+    private final long graine;
+    private final int intrusCaptures;
+    private final int intrusEchappes;
+    private final int sacsVoles;
+    private final int tours;
+    private final boolean terminee; // false si la limite de tours a été atteinte
+
+    public ResultatPartie(long graine, int intrusCaptures, int intrusEchappes,
+                          int sacsVoles, int tours, boolean terminee) {
+        this.graine = graine;
+        this.intrusCaptures = intrusCaptures;
+        this.intrusEchappes = intrusEchappes;
+        this.sacsVoles = sacsVoles;
+        this.tours = tours;
+        this.terminee = terminee;
+    }
+
+    // --------------------
+    // Getters
+    // --------------------
+    public long getGraine() { return graine; }
+    public int getIntrusCaptures() { return intrusCaptures; }
+    public int getIntrusEchappes() { return intrusEchappes; }
+    public int getSacsVoles() { return sacsVoles; }
+    public int getTours() { return tours; }
+    public boolean estTerminee() { return terminee; }
+
+    @Override
+    public String toString() {
+        return "Partie " + graine + " : " + intrusCaptures + " capturés, " + intrusEchappes
+                + " échappés, " + sacsVoles + " sacs volés, " + tours + " tours"
+                + (terminee ? "" : " (limite atteinte)");
+    }
+}
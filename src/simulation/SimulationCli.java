@@ -0,0 +1,120 @@
+package simulation;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Function;
+
+import ia.AlphaBeta;
+import ia.IAIntrus;
+import ia.IARobots;
+import ia.MonteCarlo;
+import ia.Strategie;
+import model.terrain.Grille;
+
+/**
+ * Lance N parties sans interface graphique et affiche le débit.
+ *
+ * Usage : java -cp "target/classes:target/dependency/*" simulation.SimulationCli [nbParties] [graine] [lignes] [colonnes] [fils]
+ *         [--robots=hasard|poursuite|alphabeta|mcts] [--intrus=hasard|astar|alphabeta|mcts] [--connexe]
+ * Par défaut, un fil de calcul par cœur et des coups au hasard pour les deux camps.
+ * --connexe génère des grilles dont les obstacles ne coupent jamais le terrain.
+ * Les événements du moteur (journal DEBUG) sont coupés : -Dniveau.moteur=DEBUG pour les voir.
+ */
+public class SimulationCli {
+
+    public static void main(String[] arguments) {
+        // Lu par logback.xml à sa première utilisation : avant tout accès au moteur
+        if (System.getProperty("niveau.moteur") == null) System.setProperty("niveau.moteur", "INFO");
+
+        // Options --nom=valeur, le reste est positionnel
+        List<String> positionnels = new ArrayList<>();
+        String iaRobots = "hasard";
+        String iaIntrus = "hasard";
+        boolean connexe = false;
+        for (String a : arguments) {
+            if (a.startsWith("--robots=")) iaRobots = a.substring("--robots=".length());
+            else if (a.startsWith("--intrus=")) iaIntrus = a.substring("--intrus=".length());
+            else if (a.equals("--connexe")) connexe = true;
+            else positionnels.add(a);
+        }
+        String[] args = positionnels.toArray(new String[0]);
+
+        int nbParties = args.length > 0 ? Integer.parseInt(args[0]) : 1000;
+        long graine = args.length > 1 ? Long.parseLong(args[1]) : 42L;
+        int nbLignes = args.length > 2 ? Integer.parseInt(args[2]) : 20;
+        int nbColonnes = args.length > 3 ? Integer.parseInt(args[3]) : nbLignes;
+        int nbFils = args.length > 4 ? Integer.parseInt(args[4]) : Runtime.getRuntime().availableProcessors();
+
+        MoteurSimulation moteur = new MoteurSimulation();
+        moteur.setDimensions(nbLignes, nbColonnes);
+        moteur.setStrategieRobots(strategieRobots(iaRobots));
+        moteur.setStrategieIntrus(strategieIntrus(iaIntrus));
+        moteur.setConnexiteGarantie(connexe);
+
+        long debut = System.nanoTime();
+        StatistiquesTournoi stats = new Tournoi(moteur, nbFils).jouer(nbParties, graine);
+        double secondes = (System.nanoTime() - debut) / 1e9;
+
+        System.out.printf(Locale.ROOT, "%d parties (%dx%d, graine %d, %d fils, robots : %s, intrus : %s) en %.3f s : %.1f parties/s%n",
+                nbParties, nbLignes, nbColonnes, graine, nbFils, iaRobots, iaIntrus, secondes, nbParties / secondes);
+        System.out.printf(Locale.ROOT, "Terminées : %d | captures : %d | évasions : %d | sacs volés : %d | tours moyens : %.1f (max %d)%n",
+                stats.getTerminees(), stats.getIntrusCaptures(), stats.getIntrusEchappes(),
+                stats.getSacsVoles(), stats.getToursMoyens(), stats.getToursMax());
+    }
+
+    private static Function<Grille, Strategie> strategieRobots(String nom) {
+        switch (nom) {
+            case "hasard":
+                return null;
+            case "poursuite":
+                return IARobots::new;
+            case "alphabeta":
+                return grille -> alphaBeta();
+            case "mcts":
+                return grille -> monteCarlo();
+            default:
+                throw new IllegalArgumentException("Stratégie de robots inconnue : " + nom);
+        }
+    }
+
+    private static Function<Grille, Strategie> strategieIntrus(String nom) {
+        switch (nom) {
+            case "hasard":
+                return null;
+            case "astar":
+                return IAIntrus::new;
+            case "alphabeta":
+                return grille -> alphaBeta();
+            case "mcts":
+                return grille -> monteCarlo();
+            default:
+                throw new IllegalArgumentException("Stratégie d'intrus inconnue : " + nom);
+        }
+    }
+
+    /**
+     * Recherche courte pour la simulation de masse (budget par coup en ms : -Dbudget, 10 par défaut).
+     */
+    private static Strategie alphaBeta() {
+        AlphaBeta ia = new AlphaBeta();
+        ia.setBudgetMillis(Long.getLong("budget", 10));
+        return ia;
+    }
+
+    /**
+     * Même budget que alphaBeta ; -Dsimulations fixe plutôt un nombre de simulations par coup,
+     * -Dfils.mcts le nombre de fils par recherche (1 par défaut, les parties sont déjà parallèles)
+     * et -Dmode.mcts le parallélisme (arbre ou racine).
+     */
+    private static Strategie monteCarlo() {
+        MonteCarlo ia = new MonteCarlo();
+        ia.setBudgetMillis(Long.getLong("budget", 10));
+        Long simulations = Long.getLong("simulations");
+        if (simulations != null) ia.setNbSimulations(simulations);
+        ia.setNbFils(Integer.getInteger("fils.mcts", 1));
+        ia.setParallelisme(MonteCarlo.Parallelisme.valueOf(
+                System.getProperty("mode.mcts", "arbre").toUpperCase(Locale.ROOT)));
+        return ia;
+    }
+}
@@ -0,0 +1,48 @@
+package simulation;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Agrégation des résultats d'un tournoi, sans verrou.
+ * Chaque fil d'exécution ajoute ses résultats via des LongAdder.
+ */
+public class StatistiquesTournoi {
+
+    private final LongAdder parties = new LongAdder();
+    private final LongAdder terminees = new LongAdder();
+    private final LongAdder intrusCaptures = new LongAdder();
+    private final LongAdder intrusEchappes = new LongAdder();
+    private final LongAdder sacsVoles = new LongAdder();
+    private final LongAdder tours = new LongAdder();
+    private final LongAccumulator toursMax = new LongAccumulator(Math::max, 0);
+
+    /**
+     * Ajoute le résultat d'une partie (appelable depuis plusieurs fils).
+     */
+    public void ajouter(ResultatPartie resultat) {
+        parties.increment();
+        if (resultat.estTerminee()) terminees.increment();
+        intrusCaptures.add(resultat.getIntrusCaptures());
+        intrusEchappes.add(resultat.getIntrusEchappes());
+        sacsVoles.add(resultat.getSacsVoles());
+        tours.add(resultat.getTours());
+        toursMax.accumulate(resultat.getTours());
+    }
+
+    // --------------------
+    // Getters
+    // --------------------
+    public long getParties() { return parties.sum(); }
+    public long getTerminees() { return terminees.sum(); }
+    public long getIntrusCaptures() { return intrusCaptures.sum(); }
+    public long getIntrusEchappes() { return intrusEchappes.sum(); }
+    public long getSacsVoles() { return sacsVoles.sum(); }
+    public long getTours() { return tours.sum(); }
+    public long getToursMax() { return toursMax.get(); }
+
+    public double getToursMoyens() {
+        long n = getParties();
+        return n == 0 ? 0.0 : (double) getTours() / n;
+    }
+}
@@ -0,0 +1,58 @@
+package simulation;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * Joue un grand nombre de parties indépendantes en parallèle (ForkJoinPool).
+ * Chaque partie a sa propre grille et sa propre graine, tirée d'un flux
+ * SplittableRandom : le résultat ne dépend pas du nombre de fils.
+ */
+public class Tournoi {
+
+    private final MoteurSimulation moteur;
+    private final int parallelisme;
+
+    /**
+     * @param moteur       configuration des parties (ne pas la modifier pendant le tournoi)
+     * @param parallelisme nombre de fils de calcul
+     */
+    public Tournoi(MoteurSimulation moteur, int parallelisme) {
+        this.moteur = moteur;
+        this.parallelisme = Math.max(1, parallelisme);
+    }
+
+    /**
+     * Joue nbParties parties à partir de la graine maîtresse.
+     */
+    public StatistiquesTournoi jouer(int nbParties, long graine) {
+        // Graines dérivées à l'avance, dans l'ordre : reproductible quel que soit le parallélisme
+        long[] graines = new long[nbParties];
+        SplittableRandom flux = new SplittableRandom(graine);
+        for (int i = 0; i < nbParties; i++) {
+            graines[i] = flux.nextLong();
+        }
+
+        StatistiquesTournoi stats = new StatistiquesTournoi();
+        ForkJoinPool pool = new ForkJoinPool(parallelisme);
+        try {
+            pool.submit(() -> IntStream.range(0, nbParties).parallel()
+                    .forEach(i -> stats.ajouter(moteur.jouerPartie(graines[i]))))
+                .get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Tournoi interrompu", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Échec d'une partie du tournoi", e.getCause());
+        } finally {
+            pool.shutdown();
+        }
+        return stats;
+    }
+
+    public int getParallelisme() {
+        return parallelisme;
+    }
+}
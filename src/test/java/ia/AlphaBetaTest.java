@@ -0,0 +1,103 @@
+package ia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+
+import org.junit.jupiter.api.Test;
+
+import controller.ValidationMouvement;
+import model.entites.Entite;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import utils.Direction;
+import utils.GenerateurGrilleAleatoire;
+import utils.Position;
+
+/**
+ * Les coups de la recherche sont ceux du validateur ; le coup choisi est toujours jouable.
+ */
+class AlphaBetaTest {
+
+    @Test
+    void coupsCommeLeValidateur() {
+        for (long graine = 0; graine < 100; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Random hasard = new Random(graine);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 100) {
+                List<Integer> coups = AlphaBeta.genererCoups(partie);
+                assertEquals(coupsDuValidateur(partie), new TreeSet<>(coups), "graine " + graine);
+                if (coups.isEmpty()) partie.passerTour();
+                else AlphaBeta.faire(partie, coups.get(hasard.nextInt(coups.size())));
+            }
+        }
+    }
+
+    @Test
+    void chaqueCoupGenereEstAccepte() {
+        for (long graine = 0; graine < 50; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            for (int coup : AlphaBeta.genererCoups(partie)) {
+                assertNotNull(AlphaBeta.faire(partie.copier(), coup), "graine " + graine + ", coup " + coup);
+            }
+        }
+    }
+
+    @Test
+    void choisirCoupRenvoieUnCoupJouable() {
+        for (long graine = 0; graine < 5; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            AlphaBeta robots = new AlphaBeta();
+            AlphaBeta intrus = new AlphaBeta();
+            robots.setBudgetMillis(10);
+            intrus.setBudgetMillis(10);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 30) {
+                Coup coup = (partie.getTourActuel() == 1 ? robots : intrus).choisirCoup(partie);
+                if (coup == null) {
+                    assertTrue(AlphaBeta.genererCoups(partie).isEmpty());
+                    partie.passerTour();
+                } else {
+                    assertTrue(partie.jouerCoup(coup.getEntite(), coup.getDirection()), "graine " + graine + " : " + coup);
+                }
+            }
+        }
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static GestionnaireJeu partieAleatoire(long graine) {
+        GestionnaireJeu partie = new GestionnaireJeu(8, 9);
+        GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+        generateur.setNbRobots(3);
+        generateur.setNbIntrus(4);
+        generateur.setNbSacs(5);
+        generateur.generer();
+        partie.demarrerPartie();
+        return partie;
+    }
+
+    /**
+     * getPositionsAccessibles, limitées aux cases libres, codées comme genererCoups.
+     */
+    private static TreeSet<Integer> coupsDuValidateur(GestionnaireJeu partie) {
+        Grille grille = partie.getGrille();
+        List<? extends Entite> camp = AlphaBeta.camp(partie);
+        TreeSet<Integer> coups = new TreeSet<>();
+        for (int k = 0; k < camp.size(); k++) {
+            Entite e = camp.get(k);
+            if (!e.estVivant()) continue;
+            Position pos = e.getPosition();
+            for (Position p : ValidationMouvement.getPositionsAccessibles(e, grille)) {
+                if (!grille.caseEstLibre(p)) continue;
+                coups.add(k * 9 + Direction.fromDelta(p.getX() - pos.getX(), p.getY() - pos.getY()).ordinal());
+            }
+        }
+        return coups;
+    }
+}
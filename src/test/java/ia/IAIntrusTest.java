@@ -0,0 +1,82 @@
+package ia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import utils.Direction;
+import utils.GenerateurGrilleAleatoire;
+
+/**
+ * Plans A* des intrus : coups toujours jouables, chemin le plus court vers la sortie.
+ */
+class IAIntrusTest {
+
+    @Test
+    void coupsProposesJouables() {
+        for (long graine = 0; graine < 40; graine++) {
+            GestionnaireJeu partie = new GestionnaireJeu(12, 14);
+            GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+            generateur.setNbRobots(3);
+            generateur.setNbIntrus(4);
+            generateur.generer();
+            partie.demarrerPartie();
+            IAIntrus ia = new IAIntrus(partie.getGrille());
+            Random hasard = new Random(graine);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 200) {
+                if (partie.getTourActuel() == 1) {
+                    // Robots au hasard : les plans des intrus sont sans cesse invalidés
+                    List<Robot> robots = partie.getGrille().getRobots();
+                    Robot r = robots.get(hasard.nextInt(robots.size()));
+                    if (!partie.jouerCoup(r, Direction.values()[hasard.nextInt(Direction.values().length)])) partie.passerTour();
+                    continue;
+                }
+                Coup coup = ia.choisirCoup(partie);
+                if (coup == null) {
+                    partie.passerTour();
+                } else {
+                    assertTrue(partie.jouerCoup(coup.getEntite(), coup.getDirection()), "graine " + graine + " : " + coup);
+                }
+            }
+        }
+    }
+
+    @Test
+    void cheminLePlusCourtVersLaSortie() {
+        // Terrain ouvert, un mur percé en colonne 5 : 12 coups en 8 directions de (0, 0) à (7, 10)
+        GestionnaireJeu partie = new GestionnaireJeu(8, 11);
+        Grille grille = partie.getGrille();
+        for (int x = 0; x < 8; x++) {
+            if (x != 7) grille.ajouterObstacle(grille.position(x, 5));
+        }
+        grille.ajouterSortie(grille.position(7, 10));
+        Intrus intrus = new Intrus(0, grille.position(0, 0));
+        grille.ajouterIntrus(intrus);
+        grille.ajouterRobot(new Robot(0, grille.position(0, 10)));
+        partie.demarrerPartie();
+
+        IAIntrus ia = new IAIntrus(grille);
+        int coups = 0;
+        while (!intrus.aFui()) {
+            if (partie.getTourActuel() == 1) {
+                partie.passerTour();
+                continue;
+            }
+            Coup coup = ia.choisirCoup(partie);
+            assertNotNull(coup, "coup " + coups);
+            assertTrue(partie.jouerCoup(coup.getEntite(), coup.getDirection()), coup.toString());
+            coups++;
+        }
+        assertEquals(12, coups);
+    }
+}
@@ -0,0 +1,147 @@
+package ia;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import utils.Direction;
+import utils.GenerateurGrilleAleatoire;
+import utils.Position;
+
+/**
+ * Affectation par enchères (somme des distances minimale, tenue d'un tour à l'autre)
+ * et légalité des coups proposés.
+ */
+class IARobotsTest {
+
+    /**
+     * Couloir ouvert, sur la ligne du milieu : B en 0, A en 20, X entre 12 et 17, Y entre 23 et 28.
+     * Au plus proche, A et B chassent tous deux X ; l'optimum est toujours A -> Y, B -> X
+     * (coût (Y - 20) + X contre (20 - X) + Y).
+     */
+    @Test
+    void affectationOptimaleQuandLePlusProcheDiffere() {
+        GestionnaireJeu partie = new GestionnaireJeu(3, 30);
+        Grille grille = partie.getGrille();
+        Robot a = new Robot(0, grille.position(1, 20));
+        Robot b = new Robot(1, grille.position(1, 0));
+        Intrus x = new Intrus(0, grille.position(1, 16));
+        Intrus y = new Intrus(1, grille.position(1, 26));
+        poser(grille, a, b, x, y);
+        partie.demarrerPartie();
+
+        IARobots ia = new IARobots(grille);
+        Random hasard = new Random(7);
+        for (int tour = 0; tour < 200; tour++) {
+            ia.choisirCoup(partie);
+            assertSame(y, ia.getAffectation(a), "tour " + tour);
+            assertSame(x, ia.getAffectation(b), "tour " + tour);
+            grille.deplacerEntite(x, grille.position(1, 12 + hasard.nextInt(6)));
+            grille.deplacerEntite(y, grille.position(1, 23 + hasard.nextInt(6)));
+        }
+    }
+
+    /**
+     * Deux robots immobiles, deux intrus qui errent au hasard sur un terrain ouvert :
+     * à chaque tour, l'affectation est celle de coût total minimal.
+     * (Des prix gardés d'un tour à l'autre finissaient par laisser un robot sans affectation.)
+     */
+    @Test
+    void affectationOptimaleAChaqueTour() {
+        for (long graine = 0; graine < 300; graine++) {
+            Random hasard = new Random(graine);
+            int nbLignes = 3 + hasard.nextInt(6);
+            int nbColonnes = 10 + hasard.nextInt(25);
+            GestionnaireJeu partie = new GestionnaireJeu(nbLignes, nbColonnes);
+            Grille grille = partie.getGrille();
+            Robot a = new Robot(0, grille.position(hasard.nextInt(nbLignes), hasard.nextInt(nbColonnes)));
+            Robot b = new Robot(1, grille.position(hasard.nextInt(nbLignes), hasard.nextInt(nbColonnes)));
+            Intrus x = new Intrus(0, grille.position(hasard.nextInt(nbLignes), hasard.nextInt(nbColonnes)));
+            Intrus y = new Intrus(1, grille.position(hasard.nextInt(nbLignes), hasard.nextInt(nbColonnes)));
+            poser(grille, a, b, x, y);
+            if (grille.getRobots().size() < 2 || grille.getIntrus().size() < 2) continue;
+            partie.demarrerPartie();
+
+            IARobots ia = new IARobots(grille);
+            for (int tour = 0; tour < 300 && !aPortee(grille); tour++) {
+                ia.choisirCoup(partie);
+                int direct = distance(a, x) + distance(b, y);
+                int croise = distance(a, y) + distance(b, x);
+                String message = "graine " + graine + ", tour " + tour;
+                assertNotNull(ia.getAffectation(a), message);
+                assertNotNull(ia.getAffectation(b), message);
+                if (direct < croise) assertSame(x, ia.getAffectation(a), message);
+                if (croise < direct) assertSame(y, ia.getAffectation(a), message);
+
+                for (Intrus i : List.of(x, y)) {
+                    Direction d = Direction.values()[hasard.nextInt(Direction.values().length)];
+                    grille.deplacerEntite(i, grille.voisine(i.getPosition(), d));
+                }
+            }
+        }
+    }
+
+    @Test
+    void coupsProposesJouables() {
+        for (long graine = 0; graine < 30; graine++) {
+            GestionnaireJeu partie = new GestionnaireJeu(12, 14);
+            GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+            generateur.setNbRobots(3);
+            generateur.setNbIntrus(4);
+            generateur.generer();
+            partie.demarrerPartie();
+            IARobots robots = new IARobots(partie.getGrille());
+            IAIntrus intrus = new IAIntrus(partie.getGrille());
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 200) {
+                Coup coup = (partie.getTourActuel() == 1 ? robots : intrus).choisirCoup(partie);
+                if (coup == null) {
+                    partie.passerTour();
+                } else {
+                    assertTrue(partie.jouerCoup(coup.getEntite(), coup.getDirection()), "graine " + graine + " : " + coup);
+                }
+            }
+        }
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static void poser(Grille grille, Robot a, Robot b, Intrus x, Intrus y) {
+        grille.ajouterRobot(a);
+        grille.ajouterRobot(b);
+        grille.ajouterIntrus(x);
+        grille.ajouterIntrus(y);
+    }
+
+    /**
+     * Un robot pourrait capturer au prochain coup : choisirCoup n'enchérit pas.
+     */
+    private static boolean aPortee(Grille grille) {
+        for (Robot r : grille.getRobots()) {
+            for (Intrus i : grille.getIntrus()) {
+                if (distance(r, i) <= 2) return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Distance de chemin sur un terrain sans obstacle (8 directions).
+     */
+    private static int distance(Entite e1, Entite e2) {
+        Position p = e1.getPosition();
+        Position q = e2.getPosition();
+        return Math.max(Math.abs(p.getX() - q.getX()), Math.abs(p.getY() - q.getY()));
+    }
+}
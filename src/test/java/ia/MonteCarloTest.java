@@ -0,0 +1,90 @@
+package ia;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import utils.GenerateurGrilleAleatoire;
+
+/**
+ * Coup jouable dans les deux modes parallèles ; budget en simulations respecté.
+ */
+class MonteCarloTest {
+
+    @Test
+    void coupJouableEnModeRacine() {
+        jouer(MonteCarlo.Parallelisme.RACINE);
+    }
+
+    @Test
+    void coupJouableEnModeArbre() {
+        jouer(MonteCarlo.Parallelisme.ARBRE);
+    }
+
+    @Test
+    void moinsDeSimulationsQueDeFils() {
+        for (MonteCarlo.Parallelisme mode : MonteCarlo.Parallelisme.values()) {
+            GestionnaireJeu partie = partieAleatoire(3);
+            MonteCarlo ia = strategie(mode, 2, 4);
+            Coup coup = ia.choisirCoup(partie);
+            assertEquals(2, ia.getSimulations(), mode.name());
+            assertTrue(partie.jouerCoup(coup.getEntite(), coup.getDirection()), mode + " : " + coup);
+        }
+    }
+
+    @Test
+    void unFilMemeGraineMemeCoup() {
+        for (long graine = 0; graine < 5; graine++) {
+            MonteCarlo a = strategie(MonteCarlo.Parallelisme.ARBRE, 100, 1);
+            MonteCarlo b = strategie(MonteCarlo.Parallelisme.ARBRE, 100, 1);
+            a.setGraine(graine);
+            b.setGraine(graine);
+            Coup coupA = a.choisirCoup(partieAleatoire(graine));
+            Coup coupB = b.choisirCoup(partieAleatoire(graine));
+            assertEquals(coupA.getEntite().getPosition(), coupB.getEntite().getPosition(), "graine " + graine);
+            assertEquals(coupA.getDirection(), coupB.getDirection(), "graine " + graine);
+        }
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static void jouer(MonteCarlo.Parallelisme mode) {
+        for (long graine = 0; graine < 4; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            MonteCarlo robots = strategie(mode, 200, 3);
+            MonteCarlo intrus = strategie(mode, 200, 3);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 20) {
+                Coup coup = (partie.getTourActuel() == 1 ? robots : intrus).choisirCoup(partie);
+                if (coup == null) {
+                    assertTrue(AlphaBeta.genererCoups(partie).isEmpty());
+                    partie.passerTour();
+                } else {
+                    assertTrue(partie.jouerCoup(coup.getEntite(), coup.getDirection()), mode + ", graine " + graine + " : " + coup);
+                }
+            }
+        }
+    }
+
+    private static MonteCarlo strategie(MonteCarlo.Parallelisme mode, long nbSimulations, int nbFils) {
+        MonteCarlo ia = new MonteCarlo();
+        ia.setParallelisme(mode);
+        ia.setNbSimulations(nbSimulations);
+        ia.setNbFils(nbFils);
+        return ia;
+    }
+
+    private static GestionnaireJeu partieAleatoire(long graine) {
+        GestionnaireJeu partie = new GestionnaireJeu(8, 9);
+        GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+        generateur.setNbRobots(3);
+        generateur.setNbIntrus(4);
+        generateur.setNbSacs(5);
+        generateur.generer();
+        partie.demarrerPartie();
+        return partie;
+    }
+}
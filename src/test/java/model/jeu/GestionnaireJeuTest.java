@@ -0,0 +1,153 @@
+package model.jeu;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.entites.SacArgent;
+import model.terrain.Grille;
+import utils.Direction;
+import utils.GenerateurGrilleAleatoire;
+
+/**
+ * Empreinte de Zobrist tenue à jour coup par coup, compteurs compris ;
+ * faireCoup / defaireCoup : mêmes effets que jouerCoup, annulation exacte.
+ */
+class GestionnaireJeuTest {
+
+    @Test
+    void empreinteIncrementaleCommeUnCalculComplet() {
+        for (long graine = 0; graine < 100; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Random hasard = new Random(graine);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 150) {
+                if (!partie.jouerCoup(entiteAuHasard(partie, hasard), directionAuHasard(hasard))) partie.passerTour();
+                Grille grille = partie.getGrille();
+                assertEquals(grille.calculerHashZobrist(partie.getTourActuel() == 2), grille.getHashZobrist(),
+                        "graine " + graine + ", tour " + partie.getNombreToursJoues());
+            }
+        }
+    }
+
+    @Test
+    void faireCoupPuisDefaireRestaureLEtat() {
+        for (long graine = 0; graine < 100; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Random hasard = new Random(graine);
+            Deque<Annulation> annulations = new ArrayDeque<>();
+            Deque<String> etats = new ArrayDeque<>();
+
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 150) {
+                String avant = decrire(partie);
+                Annulation a = partie.faireCoup(entiteAuHasard(partie, hasard), directionAuHasard(hasard));
+                if (a == null) {
+                    assertEquals(avant, decrire(partie), "un coup refusé ne modifie rien");
+                    a = partie.passerTour();
+                }
+                Grille grille = partie.getGrille();
+                assertEquals(grille.calculerHashZobrist(partie.getTourActuel() == 2), grille.getHashZobrist(),
+                        "empreinte incrémentale, graine " + graine);
+                annulations.push(a);
+                etats.push(avant);
+            }
+            while (!annulations.isEmpty()) {
+                partie.defaireCoup(annulations.pop());
+                assertEquals(etats.pop(), decrire(partie), "graine " + graine);
+            }
+        }
+    }
+
+    @Test
+    void faireCoupCommeJouerCoup() {
+        for (long graine = 0; graine < 100; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Random hasard = new Random(graine);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 150) {
+                GestionnaireJeu reference = partie.copier();
+                int k = hasard.nextInt(camp(partie).size());
+                Direction d = directionAuHasard(hasard);
+                Annulation a = partie.faireCoup(camp(partie).get(k), d);
+                boolean joue = reference.jouerCoup(camp(reference).get(k), d);
+                assertEquals(joue, a != null, "légalité, graine " + graine);
+                if (a == null) {
+                    partie.passerTour();
+                    reference.incrementerTour();
+                    reference.changerTour();
+                }
+                assertEquals(decrire(reference), decrire(partie), "graine " + graine);
+            }
+        }
+    }
+
+    @Test
+    void lesCompteursEntrentDansLEmpreinte() {
+        GestionnaireJeu partie = partieAleatoire(1);
+        long avant = partie.getHashZobrist();
+        partie.incrementerIntrusCaptures();
+        assertNotEquals(avant, partie.getHashZobrist());
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static GestionnaireJeu partieAleatoire(long graine) {
+        GestionnaireJeu partie = new GestionnaireJeu(8, 9);
+        GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+        generateur.setNbRobots(3);
+        generateur.setNbIntrus(5);
+        generateur.setNbSacs(6);
+        generateur.generer();
+        partie.demarrerPartie();
+        return partie;
+    }
+
+    private static List<? extends Entite> camp(GestionnaireJeu partie) {
+        Grille grille = partie.getGrille();
+        return partie.getTourActuel() == 1 ? grille.getRobots() : grille.getIntrus();
+    }
+
+    private static Entite entiteAuHasard(GestionnaireJeu partie, Random hasard) {
+        List<? extends Entite> camp = camp(partie);
+        return camp.get(hasard.nextInt(camp.size()));
+    }
+
+    private static Direction directionAuHasard(Random hasard) {
+        return Direction.values()[hasard.nextInt(Direction.values().length)];
+    }
+
+    /**
+     * Tout ce qu'un coup peut changer : entités, sacs portés, compteurs, trait, empreinte.
+     */
+    private static String decrire(GestionnaireJeu partie) {
+        Grille grille = partie.getGrille();
+        StringBuilder sb = new StringBuilder();
+        sb.append(partie.getEtatActuel()).append(' ').append(partie.getTourActuel())
+                .append(' ').append(partie.getNombreToursJoues())
+                .append(' ').append(partie.getIntrusCaptures())
+                .append(' ').append(partie.getIntrusEchappes())
+                .append(' ').append(partie.getSacsVoles())
+                .append(' ').append(partie.getHashZobrist());
+        for (int i = 0; i < grille.getNbLignes() * grille.getNbColonnes(); i++) sb.append(grille.symboleA(i));
+        for (Robot r : grille.getRobots()) {
+            sb.append(" R").append(r.getId()).append(r.getPosition()).append(r.getNombreCaptures());
+        }
+        for (Intrus i : grille.getIntrus()) {
+            sb.append(" I").append(i.getId()).append(i.getPosition()).append(i.estVivant()).append(i.aFui());
+            for (SacArgent s : i.getSacsPortes()) sb.append('$').append(s.getId());
+        }
+        for (SacArgent s : grille.getSacs()) {
+            sb.append(" $").append(s.getId()).append(s.getPosition())
+                    .append(s.getPorteur() == null ? "-" : "I" + s.getPorteur().getId());
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,77 @@
+package model.terrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+import java.util.ArrayDeque;
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.jeu.GestionnaireJeu;
+import utils.Position;
+
+/**
+ * Le champ tenu à jour obstacle par obstacle, sortie par sortie, égale un BFS complet.
+ */
+class DistancesSortiesTest {
+
+    @Test
+    void miseAJourIncrementaleCommeBfsComplet() {
+        Random hasard = new Random(1);
+        for (int essai = 0; essai < 200; essai++) {
+            int nbLignes = 3 + hasard.nextInt(20);
+            int nbColonnes = 3 + hasard.nextInt(20);
+            Grille grille = new GestionnaireJeu(nbLignes, nbColonnes).getGrille();
+            grille.ajouterSortie(grille.position(hasard.nextInt(nbLignes), hasard.nextInt(nbColonnes)));
+            grille.getDistancesSorties();   // le champ existe : les ajouts suivants le mettent à jour
+
+            for (int k = 0; k < nbLignes * nbColonnes / 2; k++) {
+                Position pos = grille.position(hasard.nextInt(nbLignes), hasard.nextInt(nbColonnes));
+                if (hasard.nextInt(10) == 0) grille.ajouterSortie(pos);
+                else grille.ajouterObstacle(pos);
+
+                int[] attendues = bfs(grille);
+                DistancesSorties champ = grille.getDistancesSorties();
+                for (int i = 0; i < attendues.length; i++) {
+                    assertEquals(attendues[i], champ.distance(i), "essai " + essai + ", ajout " + k + ", case " + i);
+                }
+            }
+        }
+    }
+
+    /**
+     * BFS multi-sources en 8 directions à travers les cases non rocheuses.
+     */
+    private static int[] bfs(Grille grille) {
+        int nbLignes = grille.getNbLignes();
+        int nbColonnes = grille.getNbColonnes();
+        int[] distances = new int[nbLignes * nbColonnes];
+        Arrays.fill(distances, DistancesSorties.INACCESSIBLE);
+        ArrayDeque<Integer> file = new ArrayDeque<>();
+        for (int i = 0; i < distances.length; i++) {
+            if (grille.typeA(i) == TypeCase.SORTIE) {
+                distances[i] = 0;
+                file.add(i);
+            }
+        }
+        while (!file.isEmpty()) {
+            int u = file.poll();
+            int x = u / nbColonnes;
+            int y = u % nbColonnes;
+            for (int dx = -1; dx <= 1; dx++) {
+                for (int dy = -1; dy <= 1; dy++) {
+                    int vx = x + dx;
+                    int vy = y + dy;
+                    if (vx < 0 || vy < 0 || vx >= nbLignes || vy >= nbColonnes) continue;
+                    int v = vx * nbColonnes + vy;
+                    if (distances[v] == DistancesSorties.INACCESSIBLE && grille.typeA(v) != TypeCase.OBSTACLE) {
+                        distances[v] = distances[u] + 1;
+                        file.add(v);
+                    }
+                }
+            }
+        }
+        return distances;
+    }
+}
@@ -0,0 +1,212 @@
+package model.terrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import org.junit.jupiter.api.Test;
+
+import model.entites.Entite;
+import model.entites.Robot;
+import model.entites.SacArgent;
+import model.jeu.EtatJeu;
+import model.jeu.GestionnaireJeu;
+import observer.ObservateurGrille;
+import utils.Direction;
+import utils.GenerateurGrilleAleatoire;
+import utils.Position;
+
+/**
+ * Index et compteurs tenus à jour par la grille, comparés à un parcours complet.
+ */
+class GrilleTest {
+
+    // --------------------
+    // Index des sacs
+    // --------------------
+    @Test
+    void indexDesSacsCommeUnParcours() {
+        for (long graine = 0; graine < 40; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Grille grille = partie.getGrille();
+            Random hasard = new Random(graine);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 150) {
+                if (!partie.jouerCoup(entiteAuHasard(partie, hasard), directionAuHasard(hasard))) partie.passerTour();
+
+                for (int index = 0; index < grille.getNbLignes() * grille.getNbColonnes(); index++) {
+                    Position pos = grille.positionDe(index);
+                    assertSame(sacAuSol(grille, pos), grille.getSacA(pos), "graine " + graine + ", case " + pos);
+
+                    Set<SacArgent> attendus = new HashSet<>();
+                    for (SacArgent sac : grille.getSacs()) {
+                        if (!sac.estRamasse() && sac.getPosition().estAdjacente(pos)) attendus.add(sac);
+                    }
+                    assertEquals(attendus, new HashSet<>(grille.getSacsAdjacents(pos)), "graine " + graine + ", case " + pos);
+                }
+            }
+        }
+    }
+
+    // --------------------
+    // Carte des menaces
+    // --------------------
+    @Test
+    void menacesCommeUnParcours() {
+        for (long graine = 0; graine < 40; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Grille grille = partie.getGrille();
+            Random hasard = new Random(graine);
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 150) {
+                if (!partie.jouerCoup(entiteAuHasard(partie, hasard), directionAuHasard(hasard))) partie.passerTour();
+                verifierMenaces(grille, "graine " + graine + ", tour " + partie.getNombreToursJoues());
+            }
+            while (!grille.getRobots().isEmpty()) {
+                grille.retirerRobot(grille.getRobots().get(hasard.nextInt(grille.getRobots().size())));
+                verifierMenaces(grille, "graine " + graine + ", retrait");
+            }
+        }
+    }
+
+    // --------------------
+    // Transactions
+    // --------------------
+    @Test
+    void uneNotificationParTransactionAvecLesCasesModifiees() {
+        Grille grille = new GestionnaireJeu(5, 5).getGrille();
+        Robot robot = new Robot(0, grille.position(0, 0));
+        grille.ajouterRobot(robot);
+        Espion espion = new Espion();
+        grille.ajouterObservateur(espion);
+
+        grille.batch(() -> {
+            grille.deplacerEntite(robot, grille.position(1, 1));
+            grille.batch(() -> grille.ajouterObstacle(grille.position(3, 4)));
+            grille.deplacerEntite(robot, grille.position(2, 2));
+        });
+        assertEquals(1, espion.notifications.size());
+        assertEquals(Set.of(grille.position(0, 0), grille.position(1, 1), grille.position(2, 2), grille.position(3, 4)),
+                espion.notifications.get(0));
+
+        grille.batch(() -> { });
+        assertEquals(1, espion.notifications.size(), "transaction vide : aucune notification");
+
+        grille.deplacerEntite(robot, grille.position(2, 3));
+        assertEquals(2, espion.notifications.size());
+        assertEquals(Set.of(grille.position(2, 2), grille.position(2, 3)), espion.notifications.get(1));
+        assertEquals(0, espion.rafraichissements);
+    }
+
+    // --------------------
+    // Instantanés
+    // --------------------
+    @Test
+    void instantaneFigeMalgreLesEcrituresSuivantes() {
+        for (long graine = 0; graine < 20; graine++) {
+            GestionnaireJeu partie = partieAleatoire(graine);
+            Grille grille = partie.getGrille();
+            Random hasard = new Random(graine);
+            List<InstantaneGrille> instantanes = new ArrayList<>();
+            List<String> descriptions = new ArrayList<>();
+            while (partie.getEtatActuel() == EtatJeu.EN_COURS && partie.getNombreToursJoues() < 100) {
+                if (!partie.jouerCoup(entiteAuHasard(partie, hasard), directionAuHasard(hasard))) partie.passerTour();
+                if (hasard.nextInt(10) == 0) {
+                    // Écriture du terrain partagé : copie côté grille, jamais dans un instantané publié
+                    Position pos = grille.position(hasard.nextInt(grille.getNbLignes()), hasard.nextInt(grille.getNbColonnes()));
+                    grille.batch(() -> grille.ajouterObstacle(pos));
+                }
+                InstantaneGrille instantane = grille.getInstantane();
+                for (int index = 0; index < grille.getNbLignes() * grille.getNbColonnes(); index++) {
+                    assertEquals(grille.typeA(index), instantane.typeA(index), "graine " + graine + ", case " + index);
+                    assertEquals(genre(grille.entiteA(index)), instantane.genreA(index), "graine " + graine + ", case " + index);
+                }
+                instantanes.add(instantane);
+                descriptions.add(decrire(instantane));
+            }
+            for (int k = 0; k < instantanes.size(); k++) {
+                assertEquals(descriptions.get(k), decrire(instantanes.get(k)), "graine " + graine + ", instantané " + k);
+            }
+        }
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static GestionnaireJeu partieAleatoire(long graine) {
+        GestionnaireJeu partie = new GestionnaireJeu(8, 9);
+        GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+        generateur.setNbRobots(3);
+        generateur.setNbIntrus(5);
+        generateur.setNbSacs(6);
+        generateur.generer();
+        partie.demarrerPartie();
+        return partie;
+    }
+
+    private static Entite entiteAuHasard(GestionnaireJeu partie, Random hasard) {
+        Grille grille = partie.getGrille();
+        List<? extends Entite> camp = partie.getTourActuel() == 1 ? grille.getRobots() : grille.getIntrus();
+        return camp.get(hasard.nextInt(camp.size()));
+    }
+
+    private static Direction directionAuHasard(Random hasard) {
+        return Direction.values()[hasard.nextInt(Direction.values().length)];
+    }
+
+    private static SacArgent sacAuSol(Grille grille, Position pos) {
+        for (SacArgent sac : grille.getSacs()) {
+            if (!sac.estRamasse() && sac.getPosition().equals(pos)) return sac;
+        }
+        return null;
+    }
+
+    private static void verifierMenaces(Grille grille, String message) {
+        for (int index = 0; index < grille.getNbLignes() * grille.getNbColonnes(); index++) {
+            Position pos = grille.positionDe(index);
+            int attendue = 0;
+            for (Robot r : grille.getRobots()) {
+                if (r.estVivant() && r.getPosition().estAdjacente(pos)) attendue++;
+            }
+            assertEquals(attendue, grille.getMenace(index), message + ", case " + pos);
+            assertEquals(attendue > 0, grille.estMenacee(pos), message + ", case " + pos);
+        }
+    }
+
+    private static byte genre(Entite e) {
+        if (e instanceof Robot) return InstantaneGrille.ROBOT;
+        if (e instanceof SacArgent) return InstantaneGrille.SAC;
+        return e == null ? InstantaneGrille.VIDE : InstantaneGrille.INTRUS;
+    }
+
+    private static String decrire(InstantaneGrille instantane) {
+        StringBuilder sb = new StringBuilder();
+        sb.append(instantane.getVersion()).append(' ').append(instantane.getTour())
+                .append(' ').append(instantane.getHashZobrist());
+        for (int index = 0; index < instantane.getNbLignes() * instantane.getNbColonnes(); index++) {
+            sb.append(instantane.typeA(index).ordinal()).append(instantane.genreA(index));
+        }
+        sb.append(Arrays.toString(instantane.getRobots())).append(Arrays.toString(instantane.getIntrus()))
+                .append(Arrays.toString(instantane.getSacsAuSol()));
+        return sb.toString();
+    }
+
+    private static final class Espion implements ObservateurGrille {
+        final List<Set<Position>> notifications = new ArrayList<>();
+        int rafraichissements;
+
+        @Override
+        public void onGrilleModifiee() {
+            rafraichissements++;
+        }
+
+        @Override
+        public void onGrilleModifiee(Set<Position> casesModifiees) {
+            notifications.add(new HashSet<>(casesModifiees));
+        }
+    }
+}
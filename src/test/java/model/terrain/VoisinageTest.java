@@ -0,0 +1,93 @@
+package model.terrain;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.IntUnaryOperator;
+
+import org.junit.jupiter.api.Test;
+
+import utils.Direction;
+
+/**
+ * Voisines des tables et du calcul à la volée, comparées aux boucles dx / dy.
+ */
+class VoisinageTest {
+
+    @Test
+    void tablesCommeLesBoucles() {
+        for (int nbLignes = 1; nbLignes <= 6; nbLignes++) {
+            for (int nbColonnes = 1; nbColonnes <= 6; nbColonnes++) {
+                Voisinage v = Voisinage.pour(nbLignes, nbColonnes);
+                for (int index = 0; index < nbLignes * nbColonnes; index++) verifier(v, index);
+            }
+        }
+    }
+
+    @Test
+    void tablesPartageesParTaille() {
+        assertSame(Voisinage.pour(17, 23), Voisinage.pour(17, 23));
+    }
+
+    @Test
+    void calculALaVoleeAuDelaDuSeuil() {
+        int nbLignes = 2049;
+        int nbColonnes = 2049;   // un peu plus de SEUIL_TABLES cases
+        Voisinage v = Voisinage.pour(nbLignes, nbColonnes);
+        // Bords et coins, puis un échantillon de cases intérieures
+        for (int x = 0; x < nbLignes; x++) {
+            verifier(v, x * nbColonnes);
+            verifier(v, x * nbColonnes + nbColonnes - 1);
+        }
+        for (int y = 0; y < nbColonnes; y++) {
+            verifier(v, y);
+            verifier(v, (nbLignes - 1) * nbColonnes + y);
+        }
+        Random hasard = new Random(4);
+        for (int k = 0; k < 10_000; k++) verifier(v, hasard.nextInt(nbLignes * nbColonnes));
+    }
+
+    @Test
+    void directionDepuisDelta() {
+        for (Direction d : Direction.values()) {
+            assertSame(d, Direction.fromDelta(d.getDx(), d.getDy()));
+        }
+        assertNull(Direction.fromDelta(2, 0));
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static void verifier(Voisinage v, int index) {
+        assertEquals(attendues(v, index, new int[] {-1, -1, -1, 0, 0, 1, 1, 1}, new int[] {-1, 0, 1, -1, 1, -1, 0, 1}),
+                voisines(v.nbVoisins8(index), k -> v.voisin8(index, k)), "8 voisines de " + index);
+        assertEquals(attendues(v, index, new int[] {-1, 1, 0, 0}, new int[] {0, 0, -1, 1}),
+                voisines(v.nbVoisins4(index), k -> v.voisin4(index, k)), "4 voisines de " + index);
+        for (int j : voisines(v.nbVoisins8(index), k -> v.voisin8(index, k))) {
+            assertTrue(v.sontAdjacentes(index, j));
+        }
+    }
+
+    private static List<Integer> attendues(Voisinage v, int index, int[] dx, int[] dy) {
+        int x = index / v.getNbColonnes();
+        int y = index % v.getNbColonnes();
+        List<Integer> liste = new ArrayList<>();
+        for (int k = 0; k < dx.length; k++) {
+            int vx = x + dx[k];
+            int vy = y + dy[k];
+            if (vx >= 0 && vx < v.getNbLignes() && vy >= 0 && vy < v.getNbColonnes()) liste.add(vx * v.getNbColonnes() + vy);
+        }
+        return liste;
+    }
+
+    private static List<Integer> voisines(int nb, IntUnaryOperator voisine) {
+        List<Integer> liste = new ArrayList<>();
+        for (int k = 0; k < nb; k++) liste.add(voisine.applyAsInt(k));
+        return liste;
+    }
+}
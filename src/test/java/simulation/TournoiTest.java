@@ -0,0 +1,58 @@
+package simulation;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.SplittableRandom;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Totaux du tournoi : somme des parties jouées une à une, quel que soit le parallélisme.
+ */
+class TournoiTest {
+
+    private static final int NB_PARTIES = 200;
+    private static final long GRAINE = 42;
+
+    @Test
+    void totauxCommeLesPartiesUneAUne() {
+        MoteurSimulation moteur = moteur();
+        StatistiquesTournoi attendues = new StatistiquesTournoi();
+        SplittableRandom flux = new SplittableRandom(GRAINE);
+        for (int i = 0; i < NB_PARTIES; i++) attendues.ajouter(moteur.jouerPartie(flux.nextLong()));
+
+        for (int parallelisme : new int[] {1, 4}) {
+            StatistiquesTournoi stats = new Tournoi(moteur, parallelisme).jouer(NB_PARTIES, GRAINE);
+            String message = parallelisme + " fils";
+            assertEquals(NB_PARTIES, stats.getParties(), message);
+            assertEquals(attendues.getTerminees(), stats.getTerminees(), message);
+            assertEquals(attendues.getIntrusCaptures(), stats.getIntrusCaptures(), message);
+            assertEquals(attendues.getIntrusEchappes(), stats.getIntrusEchappes(), message);
+            assertEquals(attendues.getSacsVoles(), stats.getSacsVoles(), message);
+            assertEquals(attendues.getTours(), stats.getTours(), message);
+            assertEquals(attendues.getToursMax(), stats.getToursMax(), message);
+        }
+    }
+
+    @Test
+    void partiesCoherentes() {
+        MoteurSimulation moteur = moteur();
+        SplittableRandom flux = new SplittableRandom(GRAINE);
+        for (int i = 0; i < NB_PARTIES; i++) {
+            ResultatPartie resultat = moteur.jouerPartie(flux.nextLong());
+            assertTrue(resultat.getIntrusCaptures() + resultat.getIntrusEchappes() <= 3, resultat.toString());
+            assertTrue(resultat.getTours() <= 300, resultat.toString());
+        }
+    }
+
+    private static MoteurSimulation moteur() {
+        MoteurSimulation moteur = new MoteurSimulation();
+        moteur.setDimensions(12, 12);
+        moteur.setNbRobots(2);
+        moteur.setNbIntrus(3);
+        moteur.setNbSacs(4);
+        moteur.setMaxTours(300);
+        return moteur;
+    }
+}
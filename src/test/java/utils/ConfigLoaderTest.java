@@ -0,0 +1,218 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.entites.SacArgent;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import model.terrain.InstantaneGrille;
+
+/**
+ * Cartes binaires et texte : aller-retour et fichiers invalides.
+ */
+class ConfigLoaderTest {
+
+    @TempDir
+    Path dossier;
+
+    // --------------------
+    // Aller-retour
+    // --------------------
+    @Test
+    void allerRetourBinaire() throws IOException {
+        for (long graine = 0; graine < 20; graine++) {
+            Grille source = grilleAleatoire(graine);
+            Path fichier = dossier.resolve("carte" + graine + ".bin");
+            ConfigLoader.sauvegarderBinaire(source, fichier);
+            Grille lue = ConfigLoader.chargerBinaire(fichier).getGrille();
+            assertEquals(decrire(source), decrire(lue), "graine " + graine);
+            assertEquals(source.getHashZobrist(), lue.getHashZobrist(), "graine " + graine);
+        }
+    }
+
+    @Test
+    void allerRetourTexte() throws IOException {
+        for (long graine = 0; graine < 20; graine++) {
+            Grille source = grilleAleatoire(graine);
+            Path fichier = dossier.resolve("carte" + graine + ".txt");
+            ConfigLoader.sauvegarderTexte(source, fichier);
+            Grille lue = ConfigLoader.chargerTexte(fichier).getGrille();
+            assertEquals(symboles(source), symboles(lue), "graine " + graine);
+            assertEquals(source.getRobots().size(), lue.getRobots().size());
+            assertEquals(source.getIntrus().size(), lue.getIntrus().size());
+            assertEquals(source.getSacs().size(), lue.getSacs().size());
+
+            // Le texte ne garde pas les identifiants : 0, 1, 2... dans l'ordre de lecture,
+            // donc un second aller-retour rend exactement la même grille
+            for (int k = 0; k < lue.getRobots().size(); k++) assertEquals(k, lue.getRobots().get(k).getId());
+            ConfigLoader.sauvegarderTexte(lue, fichier);
+            assertEquals(decrire(lue), decrire(ConfigLoader.chargerTexte(fichier).getGrille()), "graine " + graine);
+        }
+    }
+
+    @Test
+    void texteAvecEspacesEtLignesVides() throws IOException {
+        Path fichier = ecrire("# . E", "", "R $ I", "");
+        Grille grille = ConfigLoader.chargerTexte(fichier).getGrille();
+        assertEquals(2, grille.getNbLignes());
+        assertEquals(3, grille.getNbColonnes());
+        assertEquals("#.ER$I", symboles(grille));
+        assertEquals(0, grille.getRobots().get(0).getId());
+        assertEquals(0, grille.getIntrus().get(0).getId());
+        assertEquals(0, grille.getSacs().get(0).getId());
+
+        // L'instantané publié à la fin du chargement contient terrain et entités
+        InstantaneGrille instantane = grille.getInstantane();
+        assertEquals(1, instantane.getNbRobots());
+        assertEquals(grille.index(1, 0), instantane.getCaseRobot(0));
+        assertEquals(grille.typeA(0), instantane.typeA(0));
+    }
+
+    // --------------------
+    // Binaire invalide
+    // --------------------
+    @Test
+    void binaireTronque() throws IOException {
+        Path fichier = dossier.resolve("carte.bin");
+        ConfigLoader.sauvegarderBinaire(grilleAleatoire(3), fichier);
+        byte[] octets = Files.readAllBytes(fichier);
+        for (int taille : new int[] {0, 3, 10, octets.length / 2, octets.length - 1}) {
+            Files.write(fichier, Arrays.copyOf(octets, taille));
+            assertThrows(IOException.class, () -> ConfigLoader.chargerBinaire(fichier), "taille " + taille);
+        }
+    }
+
+    @Test
+    void binaireQuiNestPasUneCarte() throws IOException {
+        Path fichier = dossier.resolve("autre.bin");
+        Files.write(fichier, "ceci n'est pas une carte".getBytes());
+        IOException e = assertThrows(IOException.class, () -> ConfigLoader.chargerBinaire(fichier));
+        assertTrue(e.getMessage().contains("pas une carte"), e.getMessage());
+    }
+
+    @Test
+    void plageAvecLongueurDemesuree() throws IOException {
+        // Terrain 2x2 : une plage dont la longueur tient sur 10 octets
+        ByteBuffer b = entete(2, 2, 11);
+        b.put((byte) 0);
+        for (int i = 0; i < 9; i++) b.put((byte) 0xff);
+        b.put((byte) 1);
+        b.putInt(0).putInt(0).putInt(0);
+        Path fichier = ecrire(b);
+        IOException e = assertThrows(IOException.class, () -> ConfigLoader.chargerBinaire(fichier));
+        assertTrue(e.getMessage().contains("plage"), e.getMessage());
+    }
+
+    @Test
+    void enteteForgeSansTerrainAssorti() throws IOException {
+        // Quelques octets qui annoncent 40000 x 50000 cases : refusé avant toute allocation
+        ByteBuffer b = entete(40_000, 50_000, 2);
+        b.put((byte) 0).put((byte) 1);
+        b.putInt(0).putInt(0).putInt(0);
+        Path fichier = ecrire(b);
+        IOException e = assertThrows(IOException.class, () -> ConfigLoader.chargerBinaire(fichier));
+        assertTrue(e.getMessage().contains("incomplet"), e.getMessage());
+
+        // Même en-tête, terrain annoncé en 2 bits par case mais de 4 octets
+        b = ByteBuffer.allocate(256);
+        b.putInt(ConfigLoader.MAGIE).putShort(ConfigLoader.VERSION).putShort((short) 1);
+        b.putInt(40_000).putInt(50_000).putInt(4).putInt(0);
+        b.putInt(0).putInt(0).putInt(0);
+        Path deuxBits = ecrire(b);
+        e = assertThrows(IOException.class, () -> ConfigLoader.chargerBinaire(deuxBits));
+        assertTrue(e.getMessage().contains("incohérente"), e.getMessage());
+    }
+
+    @Test
+    void entiteSurUnObstacle() throws IOException {
+        // Terrain 2x2 : une plage d'obstacle, une plage vide ; un robot en (0, 0)
+        ByteBuffer b = entete(2, 2, 4);
+        b.put((byte) 1).put((byte) 1).put((byte) 0).put((byte) 3);
+        b.putInt(1).putInt(1).putInt(0).putInt(0);
+        b.putInt(0).putInt(0);
+        Path fichier = ecrire(b);
+        assertThrows(IOException.class, () -> ConfigLoader.chargerBinaire(fichier));
+    }
+
+    // --------------------
+    // Texte invalide
+    // --------------------
+    @Test
+    void texteCaractereInconnu() throws IOException {
+        Path fichier = ecrire("..#", "R.E", "..x");
+        IOException e = assertThrows(IOException.class, () -> ConfigLoader.chargerTexte(fichier));
+        assertTrue(e.getMessage().startsWith("Ligne 3, colonne 3"), e.getMessage());
+    }
+
+    @Test
+    void texteLignesInegales() throws IOException {
+        Path fichier = ecrire("...", "..", "...");
+        IOException e = assertThrows(IOException.class, () -> ConfigLoader.chargerTexte(fichier));
+        assertTrue(e.getMessage().startsWith("Ligne 2"), e.getMessage());
+    }
+
+    @Test
+    void texteVide() throws IOException {
+        Path fichier = ecrire();
+        assertThrows(IOException.class, () -> ConfigLoader.chargerTexte(fichier));
+    }
+
+    // --------------------
+    // Utilitaires
+    // --------------------
+    private static Grille grilleAleatoire(long graine) {
+        GestionnaireJeu gestionnaire = new GestionnaireJeu(5 + (int) graine, 7 + 2 * (int) graine);
+        new GenerateurGrilleAleatoire(gestionnaire.getGrille(), graine).generer();
+        return gestionnaire.getGrille();
+    }
+
+    /**
+     * Terrain, puis identité et position de chaque entité.
+     */
+    private static String decrire(Grille grille) {
+        StringBuilder sb = new StringBuilder(symboles(grille));
+        for (Robot r : grille.getRobots()) sb.append(" R").append(r.getId()).append(r.getPosition());
+        for (Intrus i : grille.getIntrus()) sb.append(" I").append(i.getId()).append(i.getPosition());
+        for (SacArgent s : grille.getSacs()) sb.append(" $").append(s.getId()).append(s.getPosition());
+        return grille.getNbLignes() + "x" + grille.getNbColonnes() + " " + sb;
+    }
+
+    private static String symboles(Grille grille) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < grille.getNbLignes() * grille.getNbColonnes(); i++) sb.append(grille.symboleA(i));
+        return sb.toString();
+    }
+
+    private static ByteBuffer entete(int nbLignes, int nbColonnes, int tailleTerrain) {
+        ByteBuffer b = ByteBuffer.allocate(256);
+        b.putInt(ConfigLoader.MAGIE).putShort(ConfigLoader.VERSION).putShort((short) 0);
+        b.putInt(nbLignes).putInt(nbColonnes).putInt(tailleTerrain);
+        return b;
+    }
+
+    private Path ecrire(ByteBuffer b) throws IOException {
+        Path fichier = dossier.resolve("forge.bin");
+        Files.write(fichier, Arrays.copyOf(b.array(), b.position()));
+        return fichier;
+    }
+
+    private Path ecrire(String... lignes) throws IOException {
+        Path fichier = dossier.resolve("carte.txt");
+        Files.write(fichier, List.of(lignes));
+        return fichier;
+    }
+}
@@ -0,0 +1,135 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+import java.util.Random;
+
+import org.junit.jupiter.api.Test;
+
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import model.terrain.TypeCase;
+import model.terrain.Voisinage;
+
+/**
+ * Génération : même graine, même grille ; nombres exacts de cases et d'entités placées ;
+ * en mode connexité garantie, un seul bloc praticable.
+ */
+class GenerateurGrilleAleatoireTest {
+
+    @Test
+    void connexiteGarantieGardeUnSeulBlocPraticable() {
+        for (int graine = 0; graine < 500; graine++) {
+            int nbLignes = 3 + graine % 17;
+            int nbColonnes = 3 + (graine * 7) % 19;
+            GestionnaireJeu partie = new GestionnaireJeu(nbLignes, nbColonnes);
+            GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(partie.getGrille(), graine);
+            generateur.setPourcentageObstacles(20 + graine % 60);
+            generateur.setConnexiteGarantie(true);
+            generateur.generer();
+            assertEquals(1, composantes(partie.getGrille()), "graine " + graine);
+        }
+    }
+
+    @Test
+    void memeGraineMemeGrille() {
+        for (long graine = 0; graine < 20; graine++) {
+            assertEquals(decrire(generer(graine)), decrire(generer(graine)), "graine " + graine);
+            assertNotEquals(decrire(generer(graine)), decrire(generer(graine + 1)), "graine " + graine);
+        }
+    }
+
+    @Test
+    void nombresExactsPlaces() {
+        Random hasard = new Random(21);
+        for (int essai = 0; essai < 300; essai++) {
+            int nbLignes = 1 + hasard.nextInt(12);
+            int nbColonnes = 1 + hasard.nextInt(12);
+            int total = nbLignes * nbColonnes;
+            int pourcentageObstacles = hasard.nextInt(90);
+            int pourcentageSorties = hasard.nextInt(20);
+            int nbRobots = 1 + hasard.nextInt(total);
+            int nbIntrus = 1 + hasard.nextInt(total);
+            int nbSacs = 1 + hasard.nextInt(total);
+
+            GestionnaireJeu partie = new GestionnaireJeu(nbLignes, nbColonnes);
+            Grille grille = partie.getGrille();
+            GenerateurGrilleAleatoire generateur = new GenerateurGrilleAleatoire(grille, essai);
+            generateur.setPourcentageObstacles(pourcentageObstacles);
+            generateur.setPourcentageSorties(pourcentageSorties);
+            generateur.setNbRobots(nbRobots);
+            generateur.setNbIntrus(nbIntrus);
+            generateur.setNbSacs(nbSacs);
+            generateur.generer();
+
+            // Tirage sans remise : chaque case n'est proposée qu'une fois, jusqu'à épuisement
+            int restantes = total;
+            int obstacles = Math.min(total * pourcentageObstacles / 100, restantes);
+            restantes -= obstacles;
+            int sorties = Math.min(Math.max(1, total * pourcentageSorties / 100), restantes);
+            restantes -= sorties;
+            int robots = Math.min(nbRobots, restantes);
+            restantes -= robots;
+            int intrus = Math.min(nbIntrus, restantes);
+            restantes -= intrus;
+            int sacs = Math.min(nbSacs, restantes);
+
+            String message = "essai " + essai;
+            assertEquals(obstacles, compter(grille, TypeCase.OBSTACLE), message);
+            assertEquals(sorties, compter(grille, TypeCase.SORTIE), message);
+            assertEquals(robots, grille.getRobots().size(), message);
+            assertEquals(intrus, grille.getIntrus().size(), message);
+            assertEquals(sacs, grille.getSacs().size(), message);
+        }
+    }
+
+    private static Grille generer(long graine) {
+        GestionnaireJeu partie = new GestionnaireJeu(12, 15);
+        new GenerateurGrilleAleatoire(partie.getGrille(), graine).generer();
+        return partie.getGrille();
+    }
+
+    private static String decrire(Grille grille) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < grille.getNbLignes() * grille.getNbColonnes(); i++) sb.append(grille.symboleA(i));
+        return sb.toString();
+    }
+
+    private static int compter(Grille grille, TypeCase type) {
+        int nb = 0;
+        for (int i = 0; i < grille.getNbLignes() * grille.getNbColonnes(); i++) {
+            if (grille.typeA(i) == type) nb++;
+        }
+        return nb;
+    }
+
+    /**
+     * Nombre de composantes de cases non rocheuses (8-connexité, comme les déplacements).
+     */
+    private static int composantes(Grille grille) {
+        int n = grille.getNbLignes() * grille.getNbColonnes();
+        Voisinage voisinage = grille.getVoisinage();
+        boolean[] vues = new boolean[n];
+        int[] file = new int[n];
+        int nb = 0;
+        for (int depart = 0; depart < n; depart++) {
+            if (vues[depart] || grille.typeA(depart) == TypeCase.OBSTACLE) continue;
+            nb++;
+            int tete = 0, queue = 0;
+            file[queue++] = depart;
+            vues[depart] = true;
+            while (tete < queue) {
+                int u = file[tete++];
+                for (int k = 0; k < voisinage.nbVoisins8(u); k++) {
+                    int v = voisinage.voisin8(u, k);
+                    if (!vues[v] && grille.typeA(v) != TypeCase.OBSTACLE) {
+                        vues[v] = true;
+                        file[queue++] = v;
+                    }
+                }
+            }
+        }
+        return nb;
+    }
+}
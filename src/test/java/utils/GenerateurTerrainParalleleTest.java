@@ -0,0 +1,52 @@
+package utils;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import org.junit.jupiter.api.Test;
+
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+
+/**
+ * Grottes par blocs : même terrain quel que soit le nombre de fils ; sorties sur le bord.
+ */
+class GenerateurTerrainParalleleTest {
+
+    @Test
+    void memeTerrainAvecUnOuPlusieursFils() {
+        for (long graine = 0; graine < 5; graine++) {
+            byte[] reference = generer(graine, 1);
+            for (int parallelisme : new int[] {2, 4, 7}) {
+                assertArrayEquals(reference, generer(graine, parallelisme), "graine " + graine + ", " + parallelisme + " fils");
+            }
+        }
+    }
+
+    @Test
+    void sortiesSurLeBord() {
+        Grille grille = new GestionnaireJeu(150, 130).getGrille();
+        GenerateurTerrainParallele generateur = new GenerateurTerrainParallele(grille, 3);
+        generateur.setTailleBloc(16);
+        generateur.setNbSorties(6);
+        generateur.generer();
+        assertTrue(grille.getSorties().size() <= 6);
+        for (Position pos : grille.getSorties()) {
+            assertTrue(pos.getX() == 0 || pos.getY() == 0 || pos.getX() == 149 || pos.getY() == 129, pos.toString());
+        }
+    }
+
+    /**
+     * Terrain généré sur une grille de 150 x 130 en blocs de 16 cases (beaucoup de raccords).
+     */
+    private static byte[] generer(long graine, int parallelisme) {
+        Grille grille = new GestionnaireJeu(150, 130).getGrille();
+        GenerateurTerrainParallele generateur = new GenerateurTerrainParallele(grille, graine);
+        generateur.setTailleBloc(16);
+        generateur.setParallelisme(parallelisme);
+        generateur.generer();
+        byte[] types = new byte[150 * 130];
+        for (int i = 0; i < types.length; i++) types[i] = (byte) grille.typeA(i).ordinal();
+        return types;
+    }
+}
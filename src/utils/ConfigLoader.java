@@ -1,4 +1,372 @@
 package utils;
 
+import java.io.BufferedOutputStream;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.MappedByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.entites.SacArgent;
+import model.jeu.GestionnaireJeu;
+import model.terrain.Grille;
+import model.terrain.TypeCase;
+
+/**
+ * Chargement et sauvegarde des cartes.
+ *
+ * Format binaire (gros-boutiste), version 1 :
+ * <pre>
+ *   int    MAGIE ("JGCA")
+ *   short  version
+ *   short  encodage du terrain : 0 = plages (RLE), 1 = 2 bits par case
+ *   int    nbLignes, int nbColonnes
+ *   int    taille du terrain en octets, puis le terrain
+ *   3 tables d'entités (robots, intrus, sacs) : int nombre, puis (int id, int x, int y) par entité
+ * </pre>
+ * RLE : suite de (octet type, longueur en varint LEB128) couvrant les cases ligne par ligne.
+ * L'écriture choisit l'encodage le plus court.
+ * Une carte décrit une situation de départ : les sacs portés par un intrus ne s'enregistrent pas.
+ *
+ * Le chargement projette le fichier en mémoire (FileChannel.map) et décode le terrain
+ * directement dans le stockage de la grille (Grille.remplirTerrain) : aucun objet par case.
+ *
+ * Format texte : une ligne de la grille par ligne de fichier, mêmes caractères que
+ * Grille.afficherGrille ('.' vide, '#' obstacle, 'E' sortie, 'R' robot, 'I' intrus, '$' sac ;
+ * les entités sont posées sur une case vide). Espaces et lignes vides sont ignorés,
+ * toutes les lignes doivent avoir la même largeur.
+ */
 public class ConfigLoader {
+
+    public static final int MAGIE = 0x4A474341;   // "JGCA"
+    public static final short VERSION = 1;
+
+    private static final short ENCODAGE_RLE = 0;
+    private static final short ENCODAGE_2_BITS = 1;
+
+    private static final TypeCase[] TYPES = TypeCase.values();
+    private static final int TAILLE_MAX = Integer.MAX_VALUE - 8;   // plus grand tableau allouable
+
+    // --------------------
+    // Chargement
+    // --------------------
+    /**
+     * Crée une partie (en configuration) à partir d'un fichier de carte binaire.
+     *
+     * @throws IOException fichier illisible ou format invalide
+     */
+    public static GestionnaireJeu chargerBinaire(Path fichier) throws IOException {
+        try (FileChannel canal = FileChannel.open(fichier, StandardOpenOption.READ)) {
+            if (canal.size() > Integer.MAX_VALUE) throw new IOException("Carte trop volumineuse : " + fichier);
+            MappedByteBuffer tampon = canal.map(FileChannel.MapMode.READ_ONLY, 0, canal.size());
+            try {
+                return lire(tampon);
+            } catch (BufferUnderflowException | IndexOutOfBoundsException e) {
+                throw new IOException("Carte tronquée : " + fichier, e);
+            }
+        }
+    }
+
+    private static GestionnaireJeu lire(MappedByteBuffer tampon) throws IOException {
+        if (tampon.getInt() != MAGIE) throw new IOException("Ce fichier n'est pas une carte");
+        short version = tampon.getShort();
+        if (version != VERSION) throw new IOException("Version de carte non prise en charge : " + version);
+        short encodage = tampon.getShort();
+        int nbLignes = tampon.getInt();
+        int nbColonnes = tampon.getInt();
+        if (nbLignes <= 0 || nbColonnes <= 0 || (long) nbLignes * nbColonnes > Integer.MAX_VALUE) {
+            throw new IOException("Dimensions invalides : " + nbLignes + "x" + nbColonnes);
+        }
+        int tailleTerrain = tampon.getInt();
+        if (tailleTerrain < 0 || tailleTerrain > tampon.remaining()) throw new IOException("Taille de terrain invalide : " + tailleTerrain);
+        int debutTerrain = tampon.position();
+        tampon.position(debutTerrain + tailleTerrain);   // les entités suivent le terrain
+
+        // Le terrain doit couvrir exactement nbLignes x nbColonnes cases avant qu'on alloue
+        // la grille : un en-tête forgé de quelques octets ne doit pas réserver des gigaoctets
+        int nbCases = nbLignes * nbColonnes;
+        if (encodage == ENCODAGE_RLE) {
+            decoderPlages(tampon, debutTerrain, tailleTerrain, nbCases, null);
+        } else if (encodage == ENCODAGE_2_BITS) {
+            if (tailleTerrain != (int) ((nbCases + 3L) / 4)) throw new IOException("Taille de terrain incohérente : " + tailleTerrain);
+        } else {
+            throw new IOException("Encodage de terrain inconnu : " + encodage);
+        }
+
+        GestionnaireJeu gestionnaire = new GestionnaireJeu(nbLignes, nbColonnes);
+        Grille grille = gestionnaire.getGrille();
+        // Terrain et entités dans une seule transaction : un instantané, une notification
+        grille.debuterTransaction();
+        try {
+            IOException[] erreur = new IOException[1];
+            grille.remplirTerrain(types -> {
+                try {
+                    if (encodage == ENCODAGE_RLE) decoderPlages(tampon, debutTerrain, tailleTerrain, nbCases, types);
+                    else decoder2Bits(tampon, debutTerrain, types);
+                } catch (IOException e) {
+                    erreur[0] = e;
+                }
+            });
+            if (erreur[0] != null) throw erreur[0];
+
+            int nb = lireNombre(tampon);
+            for (int k = 0; k < nb; k++) {
+                grille.ajouterRobot(new Robot(tampon.getInt(), lirePositionLibre(tampon, grille)));
+            }
+            nb = lireNombre(tampon);
+            for (int k = 0; k < nb; k++) {
+                grille.ajouterIntrus(new Intrus(tampon.getInt(), lirePositionLibre(tampon, grille)));
+            }
+            nb = lireNombre(tampon);
+            for (int k = 0; k < nb; k++) {
+                grille.ajouterSac(new SacArgent(tampon.getInt(), lirePositionLibre(tampon, grille)));
+            }
+        } finally {
+            grille.validerTransaction();
+        }
+        return gestionnaire;
+    }
+
+    /**
+     * Décode les plages dans types ; avec types null, vérifie seulement qu'elles
+     * couvrent exactement nbCases cases.
+     */
+    private static void decoderPlages(MappedByteBuffer tampon, int debut, int taille, int nbCases, byte[] types) throws IOException {
+        int fin = debut + taille;
+        int p = debut;
+        int index = 0;
+        while (p < fin) {
+            byte type = tampon.get(p++);
+            int longueur = 0;
+            int decalage = 0;
+            byte b;
+            do {
+                // Au plus 5 octets (32 bits), sans déborder sur les tables d'entités
+                if (p >= fin || decalage > 28) throw new IOException("Longueur de plage invalide à l'octet " + p);
+                b = tampon.get(p++);
+                longueur |= (b & 0x7f) << decalage;
+                decalage += 7;
+            } while (b < 0);
+            if (type < 0 || type >= TYPES.length || longueur <= 0 || longueur > nbCases - index) {
+                throw new IOException("Plage de terrain invalide à l'octet " + p);
+            }
+            if (types != null) Arrays.fill(types, index, index + longueur, type);
+            index += longueur;
+        }
+        if (index != nbCases) throw new IOException("Terrain incomplet : " + index + " cases sur " + nbCases);
+    }
+
+    private static void decoder2Bits(MappedByteBuffer tampon, int debut, byte[] types) throws IOException {
+        for (int index = 0; index < types.length; index++) {
+            int type = (tampon.get(debut + (index >>> 2)) >>> ((index & 3) << 1)) & 3;
+            if (type >= TYPES.length) throw new IOException("Type de case invalide : " + type);
+            types[index] = (byte) type;
+        }
+    }
+
+    private static int lireNombre(MappedByteBuffer tampon) throws IOException {
+        int nb = tampon.getInt();
+        if (nb < 0 || nb > tampon.remaining() / 12) throw new IOException("Table d'entités invalide : " + nb);
+        return nb;
+    }
+
+    /**
+     * Position d'une entité : dans la grille, sur une case libre (sinon la grille l'ignorerait).
+     */
+    private static Position lirePositionLibre(MappedByteBuffer tampon, Grille grille) throws IOException {
+        Position pos = grille.position(tampon.getInt(), tampon.getInt());
+        if (!grille.positionValide(pos)) throw new IOException("Entité hors de la grille : " + pos);
+        if (!grille.caseEstLibre(pos)) throw new IOException("Entité sur un obstacle ou une case occupée : " + pos);
+        return pos;
+    }
+
+    /**
+     * Crée une partie (en configuration) à partir d'une carte texte, lue ligne par ligne :
+     * seul le terrain décodé (un octet par case) est gardé en mémoire, jamais le texte.
+     * Les entités sont numérotées à partir de 0 dans l'ordre de lecture (ligne par ligne),
+     * comme GenerateurGrilleAleatoire : les identifiants ne figurent pas dans le texte.
+     *
+     * @throws IOException fichier illisible, ou erreur de format (avec ligne et colonne)
+     */
+    public static GestionnaireJeu chargerTexte(Path fichier) throws IOException {
+        byte[] terrain = new byte[1 << 12];
+        int nbCases = 0;
+        int nbLignes = 0;
+        int nbColonnes = -1;
+        List<Integer> robots = new ArrayList<>();
+        List<Integer> intrus = new ArrayList<>();
+        List<Integer> sacs = new ArrayList<>();
+
+        try (BufferedReader lecteur = Files.newBufferedReader(fichier, StandardCharsets.UTF_8)) {
+            String ligne;
+            int numero = 0;
+            while ((ligne = lecteur.readLine()) != null) {
+                numero++;
+                int debutLigne = nbCases;
+                for (int colonne = 0; colonne < ligne.length(); colonne++) {
+                    char c = ligne.charAt(colonne);
+                    if (c == ' ' || c == '\t') continue;
+                    if (nbCases == terrain.length) {
+                        if (nbCases == TAILLE_MAX) throw erreurTexte(numero, colonne, "carte trop volumineuse");
+                        terrain = Arrays.copyOf(terrain, (int) Math.min(2L * nbCases, TAILLE_MAX));
+                    }
+                    TypeCase type;
+                    switch (c) {
+                        case Grille.SYMBOLE_ROBOT: robots.add(nbCases); type = TypeCase.VIDE; break;
+                        case Grille.SYMBOLE_INTRUS: intrus.add(nbCases); type = TypeCase.VIDE; break;
+                        case Grille.SYMBOLE_SAC: sacs.add(nbCases); type = TypeCase.VIDE; break;
+                        default:
+                            type = typeDeSymbole(c);
+                            if (type == null) throw erreurTexte(numero, colonne, "caractère inconnu '" + c + "'");
+                    }
+                    terrain[nbCases++] = (byte) type.ordinal();
+                }
+                int largeur = nbCases - debutLigne;
+                if (largeur == 0) continue;
+                if (nbColonnes < 0) {
+                    nbColonnes = largeur;
+                } else if (largeur != nbColonnes) {
+                    throw erreurTexte(numero, ligne.length(), largeur + " cases au lieu de " + nbColonnes);
+                }
+                nbLignes++;
+            }
+        }
+        if (nbLignes == 0) throw new IOException("Carte vide : " + fichier);
+
+        GestionnaireJeu gestionnaire = new GestionnaireJeu(nbLignes, nbColonnes);
+        Grille grille = gestionnaire.getGrille();
+        byte[] lu = terrain;
+        // Terrain et entités dans une seule transaction : un instantané, une notification
+        grille.batch(() -> {
+            grille.remplirTerrain(types -> System.arraycopy(lu, 0, types, 0, types.length));
+            int id = 0;
+            for (int index : robots) grille.ajouterRobot(new Robot(id++, grille.positionDe(index)));
+            id = 0;
+            for (int index : intrus) grille.ajouterIntrus(new Intrus(id++, grille.positionDe(index)));
+            id = 0;
+            for (int index : sacs) grille.ajouterSac(new SacArgent(id++, grille.positionDe(index)));
+        });
+        return gestionnaire;
+    }
+
+    private static TypeCase typeDeSymbole(char c) {
+        for (TypeCase type : TYPES) {
+            if (type.getSymbole() == c) return type;
+        }
+        return null;
+    }
+
+    private static IOException erreurTexte(int ligne, int colonne, String message) {
+        return new IOException("Ligne " + ligne + ", colonne " + (colonne + 1) + " : " + message);
+    }
+
+    // --------------------
+    // Sauvegarde
+    // --------------------
+    /**
+     * Écrit le terrain et les entités de la grille au format binaire.
+     */
+    public static void sauvegarderBinaire(Grille grille, Path fichier) throws IOException {
+        verifierSacsAuSol(grille);
+        byte[] plages = encoderPlages(grille);
+        long taille2Bits = ((long) grille.getNbLignes() * grille.getNbColonnes() + 3) / 4;
+        boolean rle = plages.length <= taille2Bits;
+        byte[] terrain = rle ? plages : encoder2Bits(grille);
+
+        try (DataOutputStream sortie = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(fichier), 1 << 16))) {
+            sortie.writeInt(MAGIE);
+            sortie.writeShort(VERSION);
+            sortie.writeShort(rle ? ENCODAGE_RLE : ENCODAGE_2_BITS);
+            sortie.writeInt(grille.getNbLignes());
+            sortie.writeInt(grille.getNbColonnes());
+            sortie.writeInt(terrain.length);
+            sortie.write(terrain);
+            ecrireEntites(sortie, grille.getRobots());
+            ecrireEntites(sortie, grille.getIntrus());
+            ecrireEntites(sortie, grille.getSacs());
+        }
+    }
+
+    /**
+     * Écrit la grille au format texte (sans espaces), ligne par ligne.
+     */
+    public static void sauvegarderTexte(Grille grille, Path fichier) throws IOException {
+        verifierSacsAuSol(grille);
+        try (BufferedWriter sortie = Files.newBufferedWriter(fichier, StandardCharsets.UTF_8)) {
+            char[] ligne = new char[grille.getNbColonnes()];
+            for (int x = 0; x < grille.getNbLignes(); x++) {
+                for (int y = 0; y < ligne.length; y++) ligne[y] = grille.symboleA(grille.index(x, y));
+                sortie.write(ligne);
+                sortie.newLine();
+            }
+        }
+    }
+
+    /**
+     * Un sac porté n'a pas de case : la carte ne saurait pas le rendre.
+     *
+     * @throws IOException si un intrus porte un sac
+     */
+    private static void verifierSacsAuSol(Grille grille) throws IOException {
+        for (SacArgent sac : grille.getSacs()) {
+            if (sac.getPorteur() != null) {
+                throw new IOException("Sac #" + sac.getId() + " porté par l'intrus #" + sac.getPorteur().getId()
+                        + " : seule une situation de départ s'enregistre");
+            }
+        }
+    }
+
+    private static byte[] encoderPlages(Grille grille) {
+        int n = grille.getNbLignes() * grille.getNbColonnes();
+        ByteArrayOutputStream sortie = new ByteArrayOutputStream();
+        int index = 0;
+        while (index < n) {
+            TypeCase type = grille.typeA(index);
+            int fin = index + 1;
+            while (fin < n && grille.typeA(fin) == type) fin++;
+            sortie.write(type.ordinal());
+            int longueur = fin - index;
+            while (longueur >= 0x80) {
+                sortie.write((longueur & 0x7f) | 0x80);
+                longueur >>>= 7;
+            }
+            sortie.write(longueur);
+            index = fin;
+        }
+        return sortie.toByteArray();
+    }
+
+    private static byte[] encoder2Bits(Grille grille) {
+        int n = grille.getNbLignes() * grille.getNbColonnes();
+        byte[] octets = new byte[(n + 3) / 4];
+        for (int index = 0; index < n; index++) {
+            octets[index >>> 2] |= (byte) (grille.typeA(index).ordinal() << ((index & 3) << 1));
+        }
+        return octets;
+    }
+
+    private static void ecrireEntites(DataOutputStream sortie, List<? extends Entite> entites) throws IOException {
+        sortie.writeInt(entites.size());
+        for (Entite e : entites) {
+            int id = e instanceof Robot ? ((Robot) e).getId()
+                    : e instanceof Intrus ? ((Intrus) e).getId()
+                    : ((SacArgent) e).getId();
+            sortie.writeInt(id);
+            sortie.writeInt(e.getPosition().getX());
+            sortie.writeInt(e.getPosition().getY());
+        }
+    }
 }
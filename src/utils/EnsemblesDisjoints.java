@@ -0,0 +1,54 @@
+package utils;
+
+/**
+ * Union-find sur des entiers 0..n-1 (union par taille, compression de chemin) :
+ * chaque opération coûte un temps quasi constant.
+ */
+public final class EnsemblesDisjoints {
+
+    private final int[] parents;
+    private final int[] tailles;
+
+    public EnsemblesDisjoints(int n) {
+        this.parents = new int[n];
+        this.tailles = new int[n];
+        for (int i = 0; i < n; i++) {
+            parents[i] = i;
+            tailles[i] = 1;
+        }
+    }
+
+    /**
+     * Représentant de l'ensemble de x.
+     */
+    public int trouver(int x) {
+        int racine = x;
+        while (parents[racine] != racine) racine = parents[racine];
+        // Compression : tout le chemin pointe désormais sur la racine
+        while (parents[x] != racine) {
+            int suivant = parents[x];
+            parents[x] = racine;
+            x = suivant;
+        }
+        return racine;
+    }
+
+    /**
+     * Réunit les ensembles de a et b.
+     *
+     * @return false s'ils étaient déjà réunis
+     */
+    public boolean unir(int a, int b) {
+        int ra = trouver(a);
+        int rb = trouver(b);
+        if (ra == rb) return false;
+        if (tailles[ra] < tailles[rb]) {
+            int t = ra;
+            ra = rb;
+            rb = t;
+        }
+        parents[rb] = ra;
+        tailles[ra] += tailles[rb];
+        return true;
+    }
+}
@@ -1,8 +1,6 @@
 package utils;
 
-import java.util.HashSet;
-import java.util.Random;
-import java.util.Set;
+import java.util.SplittableRandom;
 
 import model.entites.Intrus;
 import model.entites.Robot;
@@ -12,168 +10,330 @@ import model.terrain.TypeCase;
 
 /**
  * Génère aléatoirement une grille de jeu avec obstacles, sorties, robots, intrus et sacs.
+ *
+ * Tout est tiré d'une graine de 64 bits (SplittableRandom) : chaque phase de placement
+ * a son propre sous-flux, dérivé de la graine dans un ordre fixe. Les flux sont indépendants
+ * (une phase qui tire plus ou moins de nombres ne décale pas les flux des suivantes),
+ * mais pas les placements : les cases tirées dépendent des cases encore libres, donc
+ * changer le nombre d'obstacles, par exemple, déplace aussi robots, intrus et sacs.
+ * À graine et réglages égaux, la grille est toujours la même.
+ * La graine est notée dans le GestionnaireJeu de la grille pour rejouer la partie.
+ *
+ * Les cases sont tirées sans remise dans un index des cases libres (Fisher–Yates partiel) :
+ * k placements coûtent O(k) après un seul parcours de la grille, et le nombre demandé
+ * est toujours atteint tant qu'il reste de la place.
+ *
+ * Mode connexité garantie (setConnexiteGarantie) : un obstacle n'est posé que s'il ne
+ * coupe pas les cases praticables en deux, si bien que toute sortie, tout intrus et tout
+ * sac placés ensuite sont reliés. Le test est celui de la dualité des grilles :
+ * les déplacements se font en 8 directions, donc les cases praticables sont coupées
+ * exactement quand les obstacles (en 4-connexité, le bord comptant comme obstacle)
+ * referment une boucle. Un union-find sur les obstacles détecte cette boucle en
+ * temps quasi constant par obstacle.
  */
 
 public class GenerateurGrilleAleatoire {
 
-    private Random random;
+    // Sous-flux de chaque phase (rang du split depuis la graine)
+    private static final int PHASE_OBSTACLES = 0;
+    private static final int PHASE_SORTIES = 1;
+    private static final int PHASE_ROBOTS = 2;
+    private static final int PHASE_INTRUS = 3;
+    private static final int PHASE_SACS = 4;
+
+    private final long graine;
+    private SplittableRandom random;   // sous-flux de la phase en cours
     private Grille grille;
-    private Set<Position> positionsOccupees;
+
+    // Cases candidates : libres[debut..nbLibres) ; les cases déjà tirées sont devant
+    private int[] libres;
+    private int nbLibres;
+    private int debut;
 
     // Pourcentages (0-100)
     private int pourcentageObstacles = 15;
+    private boolean connexiteGarantie;
     private int pourcentageSorties = 10;
     private int nbRobots = 2;
     private int nbIntrus = 3;
     private int nbSacs = 4;
 
     /**
-     * Constructeur.
+     * Constructeur : graine tirée au hasard (consultable par getGraine).
      */
     public GenerateurGrilleAleatoire(Grille grille) {
+        this(grille, new SplittableRandom().nextLong());
+    }
+
+    /**
+     * Constructeur avec graine : même graine, même grille.
+     */
+    public GenerateurGrilleAleatoire(Grille grille, long graine) {
         this.grille = grille;
-        this.random = new Random();
-        this.positionsOccupees = new HashSet<>();
+        this.graine = graine;
+    }
+
+    public long getGraine() {
+        return graine;
+    }
+
+    /**
+     * Sous-flux de la phase : le (phase + 1)-ième split d'un flux initialisé avec la graine.
+     * La graine est notée dans l'état de la partie.
+     */
+    private void debuterPhase(int phase) {
+        SplittableRandom racine = new SplittableRandom(graine);
+        SplittableRandom flux = racine.split();
+        for (int i = 0; i < phase; i++) flux = racine.split();
+        random = flux;
+        if (grille.getGestionnaire() != null) grille.getGestionnaire().setGraineGeneration(graine);
     }
 
     /**
      * Génère la grille aléatoirement.
      */
     public void generer() {
-        positionsOccupees.clear();
+        libres = null;
 
-        // 1. Placer les obstacles
-        placerObstacles();
+        // Une seule notification pour toute la génération
+        grille.batch(() -> {
+            // 1. Placer les obstacles
+            placerObstacles();
 
-        // 2. Placer les sorties
-        placerSorties();
+            // 2. Placer les sorties
+            placerSorties();
 
-        // 3. Placer les robots
-        placerRobots();
+            // 3. Placer les robots
+            placerRobots();
 
-        // 4. Placer les intrus
-        placerIntrus();
+            // 4. Placer les intrus
+            placerIntrus();
 
-        // 5. Placer les sacs d'argent
-        placerSacs();
+            // 5. Placer les sacs d'argent
+            placerSacs();
+        });
     }
 
     /**
      * Place les obstacles aléatoirement.
      */
     public void placerObstacles() {
-        int totalCases = grille.getNbLignes() * grille.getNbColonnes();
-        int nbObstacles = (totalCases * pourcentageObstacles) / 100;
-
-        int placed = 0;
-        int attempts = 0;
-        int maxAttempts = totalCases * 2;
-
-        while (placed < nbObstacles && attempts < maxAttempts) {
-            Position pos = positionAleatoire();
-            if (!positionsOccupees.contains(pos) && grille.getCase(pos).estLibre()) {
-                grille.ajouterObstacle(pos);  // Utiliser la méthode publique
-                positionsOccupees.add(pos);
-                placed++;
+        debuterPhase(PHASE_OBSTACLES);
+        grille.batch(() -> {
+            int totalCases = grille.getNbLignes() * grille.getNbColonnes();
+            int nbObstacles = (totalCases * pourcentageObstacles) / 100;
+
+            if (connexiteGarantie) {
+                placerObstaclesConnexes(nbObstacles);
+                return;
+            }
+            for (int i = 0; i < nbObstacles; i++) {
+                int index = tirerCaseLibre();
+                if (index < 0) break;
+                grille.ajouterObstacle(grille.positionDe(index));
+            }
+        });
+    }
+
+    // --------------------
+    // Connexité garantie
+    // --------------------
+    // Couronne des 8 voisines, dans l'ordre circulaire : deux voisines consécutives
+    // sont 4-adjacentes. Les indices pairs sont les 4 voisines directes.
+    private static final int[] COURONNE_DX = {-1, -1, 0, 1, 1, 1, 0, -1};
+    private static final int[] COURONNE_DY = {0, 1, 1, 1, 0, -1, -1, -1};
+
+    /**
+     * Tire des cases jusqu'à poser nbObstacles obstacles qui ne coupent rien.
+     * Une case refusée est mise de côté puis rendue aux phases suivantes :
+     * elle le serait encore plus tard (les obstacles ne font que s'ajouter).
+     */
+    private void placerObstaclesConnexes(int nbObstacles) {
+        int nbLignes = grille.getNbLignes();
+        int nbColonnes = grille.getNbColonnes();
+        int bord = nbLignes * nbColonnes;   // nœud virtuel : l'extérieur de la grille
+
+        // Obstacles déjà présents (placement manuel) : 4-connexité, bord compris
+        EnsemblesDisjoints obstacles = new EnsemblesDisjoints(bord + 1);
+        for (int x = 0; x < nbLignes; x++) {
+            for (int y = 0; y < nbColonnes; y++) {
+                int index = grille.index(x, y);
+                if (grille.typeA(index) != TypeCase.OBSTACLE) continue;
+                if (x == 0 || y == 0 || x == nbLignes - 1 || y == nbColonnes - 1) obstacles.unir(index, bord);
+                if (x > 0 && grille.typeA(index - nbColonnes) == TypeCase.OBSTACLE) obstacles.unir(index, index - nbColonnes);
+                if (y > 0 && grille.typeA(index - 1) == TypeCase.OBSTACLE) obstacles.unir(index, index - 1);
+            }
+        }
+
+        int places = 0;
+        int misDeCote = 0;
+        while (places < nbObstacles) {
+            int index = tirerCaseLibre();
+            if (index < 0) break;
+            if (!ajouterSansCouper(index, obstacles, bord)) {
+                // La case tirée (libres[debut - 1]) passe en fin de tableau, hors tirage
+                libres[debut - 1] = libres[nbLibres - 1];
+                libres[nbLibres - 1] = index;
+                debut--;
+                nbLibres--;
+                misDeCote++;
+                continue;
             }
-            attempts++;
+            grille.ajouterObstacle(grille.positionDe(index));
+            places++;
         }
+        nbLibres += misDeCote;
+    }
+
+    /**
+     * Enregistre l'obstacle dans l'union-find s'il ne referme aucune boucle.
+     *
+     * Les voisines bloquées (obstacle ou hors grille) forment des arcs sur la couronne ;
+     * deux arcs distincts sont séparés de part et d'autre par des cases praticables.
+     * Si deux arcs touchant la case appartiennent déjà au même groupe d'obstacles,
+     * la case fermerait une boucle avec des cases praticables des deux côtés : refus.
+     */
+    private boolean ajouterSansCouper(int index, EnsemblesDisjoints obstacles, int bord) {
+        int nbColonnes = grille.getNbColonnes();
+        int x = index / nbColonnes;
+        int y = index % nbColonnes;
+
+        boolean[] bloquees = new boolean[8];
+        int premiereLibre = -1;
+        for (int k = 0; k < 8; k++) {
+            int vx = x + COURONNE_DX[k];
+            int vy = y + COURONNE_DY[k];
+            bloquees[k] = vx < 0 || vy < 0 || vx >= grille.getNbLignes() || vy >= nbColonnes
+                    || grille.typeA(grille.index(vx, vy)) == TypeCase.OBSTACLE;
+            if (!bloquees[k] && premiereLibre < 0) premiereLibre = k;
+        }
+        if (premiereLibre < 0) return true;   // case isolée : rien à couper
+
+        // Groupe (racine) de chaque arc, via ses voisines directes
+        int[] groupesArcs = new int[4];
+        int nbArcs = 0;
+        int groupeArc = -1;
+        int[] groupesVoisines = new int[4];
+        int nbVoisines = 0;
+        for (int pas = 1; pas <= 8; pas++) {
+            int k = (premiereLibre + pas) % 8;
+            if (!bloquees[k]) {
+                if (groupeArc >= 0) groupesArcs[nbArcs++] = groupeArc;
+                groupeArc = -1;
+                continue;
+            }
+            if (k % 2 != 0) continue;   // diagonale : ne touche pas la case en 4-connexité
+            int vx = x + COURONNE_DX[k];
+            int vy = y + COURONNE_DY[k];
+            boolean dehors = vx < 0 || vy < 0 || vx >= grille.getNbLignes() || vy >= nbColonnes;
+            int groupe = obstacles.trouver(dehors ? bord : grille.index(vx, vy));
+            groupeArc = groupe;
+            groupesVoisines[nbVoisines++] = groupe;
+        }
+        // premiereLibre est libre : le dernier arc a été fermé par la boucle
+
+        for (int i = 0; i < nbArcs; i++) {
+            for (int j = i + 1; j < nbArcs; j++) {
+                if (groupesArcs[i] == groupesArcs[j]) return false;
+            }
+        }
+        for (int i = 0; i < nbVoisines; i++) obstacles.unir(index, groupesVoisines[i]);
+        return true;
     }
 
     /**
      * Place les sorties aléatoirement.
      */
     public void placerSorties() {
-        int totalCases = grille.getNbLignes() * grille.getNbColonnes();
-        int nbSorties = (totalCases * pourcentageSorties) / 100;
-        nbSorties = Math.max(1, nbSorties); // Au moins une sortie
-
-        int placed = 0;
-        int attempts = 0;
-        int maxAttempts = totalCases * 2;
-
-        while (placed < nbSorties && attempts < maxAttempts) {
-            Position pos = positionAleatoire();
-            if (!positionsOccupees.contains(pos) && grille.getCase(pos).estLibre()) {
-                grille.ajouterSortie(pos);  // Utiliser la méthode publique
-                positionsOccupees.add(pos);
-                placed++;
+        debuterPhase(PHASE_SORTIES);
+        grille.batch(() -> {
+            int totalCases = grille.getNbLignes() * grille.getNbColonnes();
+            int nbSorties = (totalCases * pourcentageSorties) / 100;
+            nbSorties = Math.max(1, nbSorties); // Au moins une sortie
+
+            for (int i = 0; i < nbSorties; i++) {
+                int index = tirerCaseLibre();
+                if (index < 0) break;
+                grille.ajouterSortie(grille.positionDe(index));
             }
-            attempts++;
-        }
+        });
     }
 
     /**
      * Place les robots aléatoirement.
      */
     public void placerRobots() {
-        int id = 0;
-        for (int i = 0; i < nbRobots; i++) {
-            Position pos = positionLibreAleatoire();
-            if (pos != null) {
-                Robot robot = new Robot(id++, pos);
-                grille.ajouterRobot(robot);
-                positionsOccupees.add(pos);
+        debuterPhase(PHASE_ROBOTS);
+        grille.batch(() -> {
+            for (int id = 0; id < nbRobots; id++) {
+                int index = tirerCaseLibre();
+                if (index < 0) break;
+                grille.ajouterRobot(new Robot(id, grille.positionDe(index)));
             }
-        }
+        });
     }
 
     /**
      * Place les intrus aléatoirement.
      */
     public void placerIntrus() {
-        int id = 0;
-        for (int i = 0; i < nbIntrus; i++) {
-            Position pos = positionLibreAleatoire();
-            if (pos != null) {
-                Intrus intrus = new Intrus(id++, pos);
-                grille.ajouterIntrus(intrus);
-                positionsOccupees.add(pos);
+        debuterPhase(PHASE_INTRUS);
+        grille.batch(() -> {
+            for (int id = 0; id < nbIntrus; id++) {
+                int index = tirerCaseLibre();
+                if (index < 0) break;
+                grille.ajouterIntrus(new Intrus(id, grille.positionDe(index)));
             }
-        }
+        });
     }
 
     /**
      * Place les sacs d'argent aléatoirement.
      */
     public void placerSacs() {
-        int id = 0;
-        for (int i = 0; i < nbSacs; i++) {
-            Position pos = positionLibreAleatoire();
-            if (pos != null) {
-                SacArgent sac = new SacArgent(id++, pos);  // 2 paramètres seulement
-                grille.ajouterSac(sac);
-                positionsOccupees.add(pos);
+        debuterPhase(PHASE_SACS);
+        grille.batch(() -> {
+            for (int id = 0; id < nbSacs; id++) {
+                int index = tirerCaseLibre();
+                if (index < 0) break;
+                grille.ajouterSac(new SacArgent(id, grille.positionDe(index)));
             }
-        }
+        });
     }
 
+    // --------------------
+    // Index des cases libres
+    // --------------------
     /**
-     * Retourne une position aléatoire libre (sans obstacle, sans entité).
+     * Relève toutes les cases libres (ni obstacle, ni occupant) : un seul parcours de la grille.
      */
-    private Position positionLibreAleatoire() {
-        int attempts = 0;
-        int maxAttempts = grille.getNbLignes() * grille.getNbColonnes();
-
-        while (attempts < maxAttempts) {
-            Position pos = positionAleatoire();
-            if (!positionsOccupees.contains(pos) && 
-                grille.getCase(pos).getType() != TypeCase.OBSTACLE &&
-                grille.getCase(pos).getEntite() == null) {
-                return pos;
-            }
-            attempts++;
+    private void construireIndexLibres() {
+        int totalCases = grille.getNbLignes() * grille.getNbColonnes();
+        libres = new int[totalCases];
+        nbLibres = 0;
+        for (int index = 0; index < totalCases; index++) {
+            if (grille.estLibre(index)) libres[nbLibres++] = index;
         }
-        return null; // Pas de position libre trouvée
+        debut = 0;
     }
 
     /**
-     * Retourne une position aléatoire.
+     * Tire une case libre sans remise (Fisher–Yates partiel) : la case tirée passe
+     * dans la partie déjà utilisée du tableau, elle ne sera plus proposée.
+     * Une case occupée entre-temps par un placement manuel est simplement écartée.
+     *
+     * @return l'index de la case, ou -1 s'il ne reste aucune case libre
      */
-    private Position positionAleatoire() {
-        int x = random.nextInt(grille.getNbLignes());
-        int y = random.nextInt(grille.getNbColonnes());
-        return new Position(x, y);
+    private int tirerCaseLibre() {
+        if (libres == null) construireIndexLibres();
+        while (debut < nbLibres) {
+            int j = debut + random.nextInt(nbLibres - debut);
+            int index = libres[j];
+            libres[j] = libres[debut];
+            libres[debut++] = index;
+            if (grille.estLibre(index)) return index;
+        }
+        return -1;
     }
 
     // ---- Setters pour configuration ----
@@ -193,6 +353,13 @@ public class GenerateurGrilleAleatoire {
         this.nbIntrus = Math.max(1, nb);
     }
 
+    /**
+     * Mode où les obstacles ne coupent jamais la grille (voir placerObstaclesConnexes).
+     */
+    public void setConnexiteGarantie(boolean active) {
+        this.connexiteGarantie = active;
+    }
+
     public void setNbSacs(int nb) {
         this.nbSacs = Math.max(1, nb);
     }
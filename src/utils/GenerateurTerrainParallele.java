@@ -0,0 +1,266 @@
+package utils;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+import model.terrain.Grille;
+import model.terrain.TypeCase;
+
+/**
+ * Génère le terrain de très grandes grilles (10 000 x 10 000 et plus) : des grottes
+ * par automate cellulaire, calculées bloc par bloc en parallèle, écrites directement
+ * dans le stockage de la grille (Grille.remplirTerrain), sans objet ni notification par case.
+ *
+ * Chaque bloc a sa propre graine, dérivée de la graine générale et de ses coordonnées.
+ * L'état initial d'une case ne dépend que de la graine de son bloc et de sa place :
+ * un bloc recalcule donc lui-même une marge de nbEtapes cases chez ses voisins,
+ * et après nbEtapes lissages son intérieur est exactement celui d'un calcul global.
+ * Les bords des blocs se raccordent sans couture, et le résultat ne dépend
+ * ni du nombre de fils ni de l'ordre de calcul.
+ *
+ * Les sorties sont posées sur le bord de la grille (comme l'exige PanneauConfiguration),
+ * chacune reliée aux grottes par un couloir creusé vers l'intérieur. Une case du bord
+ * dont le couloir n'atteindrait aucune grotte est écartée : sur une grille presque
+ * entièrement rocheuse, il peut y avoir moins de nbSorties sorties.
+ */
+public class GenerateurTerrainParallele {
+
+    private static final byte VIDE = (byte) TypeCase.VIDE.ordinal();
+    private static final byte OBSTACLE = (byte) TypeCase.OBSTACLE.ordinal();
+    private static final byte SORTIE = (byte) TypeCase.SORTIE.ordinal();
+
+    private final Grille grille;
+    private final long graine;
+    private final int nbLignes;
+    private final int nbColonnes;
+
+    private int tailleBloc = 256;
+    private int densite = 45;        // % de roche avant lissage
+    private int nbEtapes = 4;        // lissages de l'automate
+    private int nbSorties = 4;
+    private int parallelisme = Runtime.getRuntime().availableProcessors();
+
+    public GenerateurTerrainParallele(Grille grille, long graine) {
+        this.grille = grille;
+        this.graine = graine;
+        this.nbLignes = grille.getNbLignes();
+        this.nbColonnes = grille.getNbColonnes();
+    }
+
+    /**
+     * Remplit tout le terrain : blocs en parallèle, puis sorties.
+     */
+    public void generer() {
+        grille.remplirTerrain(types -> {
+            int blocsEnLignes = (nbLignes + tailleBloc - 1) / tailleBloc;
+            int blocsEnColonnes = (nbColonnes + tailleBloc - 1) / tailleBloc;
+            int nbBlocs = blocsEnLignes * blocsEnColonnes;
+
+            ForkJoinPool pool = new ForkJoinPool(parallelisme);
+            try {
+                pool.submit(() -> IntStream.range(0, nbBlocs).parallel()
+                        .forEach(b -> genererBloc(types, b / blocsEnColonnes, b % blocsEnColonnes)))
+                    .get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Génération interrompue", e);
+            } catch (ExecutionException e) {
+                throw new IllegalStateException("Échec de la génération d'un bloc", e.getCause());
+            } finally {
+                pool.shutdown();
+            }
+
+            placerSorties(types);
+        });
+    }
+
+    // --------------------
+    // Automate cellulaire
+    // --------------------
+    /**
+     * Calcule un bloc avec sa marge, puis écrit son intérieur (zone disjointe des autres blocs).
+     * Règle de lissage : roche si au moins 5 voisines sur 8 sont de la roche,
+     * vide si au plus 3, inchangé sinon ; l'extérieur de la grille compte comme roche.
+     */
+    private void genererBloc(byte[] types, int bx, int by) {
+        int x0 = bx * tailleBloc;
+        int y0 = by * tailleBloc;
+        int hauteur = Math.min(tailleBloc, nbLignes - x0);
+        int largeur = Math.min(tailleBloc, nbColonnes - y0);
+        int marge = nbEtapes;
+        // Tampon : bloc + marge, entouré d'un cadre de roche (aucun test de bornes au lissage)
+        int h = hauteur + 2 * marge + 2;
+        int l = largeur + 2 * marge + 2;
+        int dx = x0 - marge - 1;    // case de la grille = case du tampon + (dx, dy)
+        int dy = y0 - marge - 1;
+
+        // Partie du tampon dans la grille : seule à évoluer, le reste reste de la roche
+        int iMin = Math.max(1, -dx);
+        int iMax = Math.min(h - 2, nbLignes - 1 - dx);
+        int jMin = Math.max(1, -dy);
+        int jMax = Math.min(l - 2, nbColonnes - 1 - dy);
+
+        byte[] courant = new byte[h * l];
+        Arrays.fill(courant, (byte) 1);
+        for (int i = iMin; i <= iMax; i++) {
+            int x = i + dx;
+            long graineBloc = 0;
+            int blocCourant = -1;
+            for (int j = jMin; j <= jMax; j++) {
+                int y = j + dy;
+                int b = y / tailleBloc;
+                if (b != blocCourant) {
+                    blocCourant = b;
+                    graineBloc = graineBloc(x / tailleBloc, b);
+                }
+                courant[i * l + j] = estRoche(graineBloc, x, y) ? (byte) 1 : 0;
+            }
+        }
+        byte[] suivant = courant.clone();
+
+        // Chaque étape n'est fausse qu'à une case de plus depuis le bord du tampon :
+        // après nbEtapes, l'intérieur est exact
+        for (int etape = 0; etape < nbEtapes; etape++) {
+            for (int i = iMin; i <= iMax; i++) {
+                for (int j = jMin, p = i * l + jMin; j <= jMax; j++, p++) {
+                    int roches = courant[p - l - 1] + courant[p - l] + courant[p - l + 1]
+                            + courant[p - 1] + courant[p + 1]
+                            + courant[p + l - 1] + courant[p + l] + courant[p + l + 1];
+                    suivant[p] = roches >= 5 || (roches == 4 && courant[p] != 0) ? (byte) 1 : 0;
+                }
+            }
+            byte[] t = courant;
+            courant = suivant;
+            suivant = t;
+        }
+
+        for (int i = 0; i < hauteur; i++) {
+            int ligne = (x0 + i) * nbColonnes + y0;
+            int source = (i + marge + 1) * l + marge + 1;
+            for (int j = 0; j < largeur; j++) {
+                types[ligne + j] = courant[source + j] != 0 ? OBSTACLE : VIDE;
+            }
+        }
+    }
+
+    /**
+     * Tirage initial d'une case : fonction de la graine de son bloc et de sa place dans le bloc.
+     */
+    private boolean estRoche(long graineBloc, int x, int y) {
+        long tirage = melanger(graineBloc + (long) (x % tailleBloc) * tailleBloc + (y % tailleBloc));
+        return (tirage >>> 33) * 100 < (long) densite << 31;
+    }
+
+    /**
+     * Graine propre au bloc (bx, by).
+     */
+    private long graineBloc(int bx, int by) {
+        return melanger(graine ^ melanger(((long) bx << 32) | (by & 0xffffffffL)));
+    }
+
+    /**
+     * Finaliseur de SplitMix64.
+     */
+    private static long melanger(long z) {
+        z += 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    // --------------------
+    // Sorties
+    // --------------------
+    /**
+     * Tire des cases distinctes du bord (Fisher–Yates partiel sur le pourtour) jusqu'à
+     * nbSorties sorties reliées : depuis chacune, un couloir droit vers l'intérieur doit
+     * atteindre une case non rocheuse, sinon la case est écartée et on en tire une autre.
+     */
+    private void placerSorties(byte[] types) {
+        int[] bord = casesDuBord();
+        SplittableRandom hasard = new SplittableRandom(graine);
+        int placees = 0;
+        for (int k = 0; k < bord.length && placees < nbSorties; k++) {
+            int j = k + hasard.nextInt(bord.length - k);
+            int index = bord[j];
+            bord[j] = bord[k];
+            bord[k] = index;
+            if (creuserSortie(types, index)) placees++;
+        }
+    }
+
+    /**
+     * Pose une sortie sur la case du bord et creuse son couloir, seulement si le couloir
+     * débouche sur une grotte avant le bord opposé.
+     *
+     * @return false si le couloir ne rencontrerait que de la roche (rien n'est modifié)
+     */
+    private boolean creuserSortie(byte[] types, int index) {
+        int x = index / nbColonnes;
+        int y = index % nbColonnes;
+        // Direction vers l'intérieur : perpendiculaire au côté
+        int dx = x == 0 ? 1 : x == nbLignes - 1 ? -1 : 0;
+        int dy = dx != 0 ? 0 : y == 0 ? 1 : -1;
+
+        // Longueur du couloir jusqu'à la première case non rocheuse
+        int longueur = 0;
+        int cx = x + dx;
+        int cy = y + dy;
+        while (cx > 0 && cy > 0 && cx < nbLignes - 1 && cy < nbColonnes - 1
+                && types[cx * nbColonnes + cy] == OBSTACLE) {
+            longueur++;
+            cx += dx;
+            cy += dy;
+        }
+        if (cx <= 0 || cy <= 0 || cx >= nbLignes - 1 || cy >= nbColonnes - 1) return false;
+
+        types[index] = SORTIE;
+        for (int k = 1; k <= longueur; k++) {
+            types[(x + k * dx) * nbColonnes + y + k * dy] = VIDE;
+        }
+        return true;
+    }
+
+    private int[] casesDuBord() {
+        if (nbLignes == 1 || nbColonnes == 1) {
+            int[] toutes = new int[nbLignes * nbColonnes];
+            for (int i = 0; i < toutes.length; i++) toutes[i] = i;
+            return toutes;
+        }
+        int[] bord = new int[2 * (nbLignes + nbColonnes) - 4];
+        int n = 0;
+        for (int y = 0; y < nbColonnes; y++) {
+            bord[n++] = y;
+            bord[n++] = (nbLignes - 1) * nbColonnes + y;
+        }
+        for (int x = 1; x < nbLignes - 1; x++) {
+            bord[n++] = x * nbColonnes;
+            bord[n++] = x * nbColonnes + nbColonnes - 1;
+        }
+        return bord;
+    }
+
+    // ---- Setters pour configuration ----
+    public void setTailleBloc(int taille) {
+        this.tailleBloc = Math.max(16, taille);
+    }
+
+    public void setDensite(int pourcentage) {
+        this.densite = Math.max(0, Math.min(100, pourcentage));
+    }
+
+    public void setNbEtapes(int nb) {
+        this.nbEtapes = Math.max(0, nb);
+    }
+
+    public void setNbSorties(int nb) {
+        this.nbSorties = Math.max(1, nb);
+    }
+
+    public void setParallelisme(int parallelisme) {
+        this.parallelisme = Math.max(1, parallelisme);
+    }
+}
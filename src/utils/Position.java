@@ -1,16 +1,19 @@
 package utils;
 
-import java.util.Objects;
-
 /**
  * Représente une position (x, y) dans la grille.
  * Classe IMMUTABLE : une position ne change jamais,
  * tout déplacement retourne une nouvelle Position.
+ *
+ * Les positions partagées d'une grille (une instance par case, sans allocation)
+ * s'obtiennent par Grille.position / Grille.positionDe / Grille.voisine.
+ * L'identité n'est qu'une optimisation : les comparaisons passent par equals.
  */
 public final class Position {
 
     private final int x;
     private final int y;
+    private final int hash;
 
     /**
      * Constructeur
@@ -21,6 +24,7 @@ public final class Position {
     public Position(int x, int y) {
         this.x = x;
         this.y = y;
+        this.hash = 31 * x + y;
     }
 
     // --------------------
@@ -40,10 +44,10 @@ public final class Position {
     // --------------------
 
     /**
-     * Retourne une nouvelle position déplacée selon une direction
+     * Retourne la position déplacée selon une direction
      *
      * @param direction direction du déplacement
-     * @return nouvelle Position
+     * @return nouvelle Position (Grille.voisine renvoie celle de la grille)
      */
     public Position deplacer(Direction direction) {
         return new Position(
@@ -89,7 +93,7 @@ public final class Position {
 
     @Override
     public int hashCode() {
-        return Objects.hash(x, y);
+        return hash;
     }
 
     @Override
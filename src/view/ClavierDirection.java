@@ -0,0 +1,42 @@
+package view;
+
+import javafx.scene.input.KeyCode;
+import utils.Direction;
+
+/**
+ * Correspondance entre les touches du clavier et les directions de déplacement.
+ * Séparée de utils.Direction pour que le modèle ne dépende pas de JavaFX.
+ */
+public final class ClavierDirection {
+
+    private ClavierDirection() {
+    }
+
+    public static Direction fromKeyCode(KeyCode code) {
+        switch (code) {
+            // WASD classique
+            case W: return Direction.HAUT;
+            case S: return Direction.BAS;
+            case A: return Direction.GAUCHE;
+            case D: return Direction.DROITE;
+
+            // Diagonales WASD avec Q et E / ZC pour QWERTY ou AZERTY
+            case Q: return Direction.HAUT_GAUCHE;
+            case E: return Direction.HAUT_DROITE;
+            case Z: return Direction.BAS_GAUCHE;
+            case C: return Direction.BAS_DROITE;
+
+            // Pavé numérique (1-9)
+            case NUMPAD1: return Direction.BAS_GAUCHE;
+            case NUMPAD2: return Direction.BAS;
+            case NUMPAD3: return Direction.BAS_DROITE;
+            case NUMPAD4: return Direction.GAUCHE;
+            case NUMPAD6: return Direction.DROITE;
+            case NUMPAD7: return Direction.HAUT_GAUCHE;
+            case NUMPAD8: return Direction.HAUT;
+            case NUMPAD9: return Direction.HAUT_DROITE;
+
+            default: return null;
+        }
+    }
+}
@@ -1,162 +1,241 @@
 package view;
 
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+import javafx.geometry.Rectangle2D;
 import javafx.scene.canvas.Canvas;
 import javafx.scene.canvas.GraphicsContext;
 import javafx.scene.image.Image;
+import javafx.scene.image.ImageView;
 import javafx.scene.paint.Color;
 import javafx.scene.paint.RadialGradient;
 import javafx.scene.paint.Stop;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
 
 /**
  * Génère les images des entités de manière procédurale (sans fichiers PNG).
+ *
+ * Les sprites sont dessinés une seule fois par taille dans un atlas
+ * (une image unique, un sprite par colonne) puis réutilisés : les ImageView
+ * partagent la même Image et n'en affichent qu'une portion (viewport).
+ * À appeler depuis le thread JavaFX (snapshot).
  */
 public class GenerateurImages {
 
     private static final int TAILLE = 64;
 
     /**
-     * Génère l'image d'un robot (carré bleu avec robot en ASCII).
+     * Sprites disponibles, dans l'ordre des colonnes de l'atlas.
      */
-    public static Image genererImageRobot() {
-        Canvas canvas = new Canvas(TAILLE, TAILLE);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
+    public enum Sprite {
+        ROBOT, INTRUS, SAC, OBSTACLE, SORTIE
+    }
 
-        // Fond dégradé bleu
-        Stop[] stops = new Stop[]{
-            new Stop(0, Color.web("#1976d2")),
-            new Stop(1, Color.web("#1565c0"))
-        };
-        RadialGradient gradient = new RadialGradient(0, 0, TAILLE / 2, TAILLE / 2, TAILLE / 2, false, null, stops);
-        gc.setFill(gradient);
-        gc.fillRect(0, 0, TAILLE, TAILLE);
+    // Atlas par taille de sprite (en pixels)
+    private static final Map<Integer, Image> ATLAS = new HashMap<>();
 
-        // Dessin robot stylisé (carré + cercle)
-        gc.setFill(Color.web("#90caf9"));
-        gc.fillRect(TAILLE * 0.2, TAILLE * 0.15, TAILLE * 0.6, TAILLE * 0.5);
+    // Images individuelles (taille par défaut), pour l'API historique
+    private static final Map<Sprite, Image> IMAGES = new EnumMap<>(Sprite.class);
 
-        gc.fillOval(TAILLE * 0.25, TAILLE * 0.05, TAILLE * 0.5, TAILLE * 0.4);
+    // --------------------
+    // Atlas
+    // --------------------
+    /**
+     * Retourne l'atlas de tous les sprites pour une taille donnée (généré au premier appel).
+     */
+    public static Image getAtlas(int taille) {
+        return ATLAS.computeIfAbsent(taille, GenerateurImages::genererAtlas);
+    }
 
-        // Lettre R
-        gc.setFill(Color.WHITE);
-        gc.setFont(javafx.scene.text.Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 24));
-        gc.fillText("R", TAILLE * 0.35, TAILLE * 0.75);
+    /**
+     * Portion de l'atlas occupée par un sprite.
+     */
+    public static Rectangle2D getViewport(Sprite sprite, int taille) {
+        return new Rectangle2D(sprite.ordinal() * taille, 0, taille, taille);
+    }
 
+    /**
+     * Configure une ImageView pour afficher un sprite de l'atlas partagé.
+     */
+    public static void afficher(ImageView imageView, Sprite sprite, int taille) {
+        imageView.setImage(getAtlas(taille));
+        imageView.setViewport(getViewport(sprite, taille));
+    }
+
+    private static Image genererAtlas(int taille) {
+        Sprite[] sprites = Sprite.values();
+        Canvas canvas = new Canvas(taille * sprites.length, taille);
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        for (Sprite sprite : sprites) {
+            gc.save();
+            gc.translate(sprite.ordinal() * taille, 0);
+            dessiner(gc, sprite, taille);
+            gc.restore();
+        }
         return canvas.snapshot(null, null);
     }
 
+    private static Image genererImage(Sprite sprite) {
+        Canvas canvas = new Canvas(TAILLE, TAILLE);
+        dessiner(canvas.getGraphicsContext2D(), sprite, TAILLE);
+        return canvas.snapshot(null, null);
+    }
+
+    private static void dessiner(GraphicsContext gc, Sprite sprite, double t) {
+        switch (sprite) {
+            case ROBOT:
+                dessinerRobot(gc, t);
+                break;
+            case INTRUS:
+                dessinerIntrus(gc, t);
+                break;
+            case SAC:
+                dessinerSac(gc, t);
+                break;
+            case OBSTACLE:
+                dessinerObstacle(gc, t);
+                break;
+            case SORTIE:
+            default:
+                dessinerSortie(gc, t);
+                break;
+        }
+    }
+
+    // --------------------
+    // API historique (images mises en cache)
+    // --------------------
     /**
-     * Génère l'image d'un intrus (carré rouge avec personnage).
+     * Retourne l'image d'un robot (carré bleu avec robot en ASCII).
+     */
+    public static Image genererImageRobot() {
+        return IMAGES.computeIfAbsent(Sprite.ROBOT, GenerateurImages::genererImage);
+    }
+
+    /**
+     * Retourne l'image d'un intrus (carré rouge avec personnage).
      */
     public static Image genererImageIntrus() {
-        Canvas canvas = new Canvas(TAILLE, TAILLE);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
+        return IMAGES.computeIfAbsent(Sprite.INTRUS, GenerateurImages::genererImage);
+    }
 
-        // Fond dégradé rouge
+    /**
+     * Retourne l'image d'un sac d'argent (carré jaune avec $).
+     */
+    public static Image genererImageSac() {
+        return IMAGES.computeIfAbsent(Sprite.SAC, GenerateurImages::genererImage);
+    }
+
+    /**
+     * Retourne l'image d'un obstacle (carré gris foncé).
+     */
+    public static Image genererImageObstacle() {
+        return IMAGES.computeIfAbsent(Sprite.OBSTACLE, GenerateurImages::genererImage);
+    }
+
+    /**
+     * Retourne l'image d'une sortie (vert avec flèche).
+     */
+    public static Image genererImageSortie() {
+        return IMAGES.computeIfAbsent(Sprite.SORTIE, GenerateurImages::genererImage);
+    }
+
+    // --------------------
+    // Dessin (t = côté du sprite en pixels)
+    // --------------------
+    /**
+     * Fond en dégradé radial commun à tous les sprites.
+     */
+    private static void dessinerFond(GraphicsContext gc, double t, String centre, String bord) {
         Stop[] stops = new Stop[]{
-            new Stop(0, Color.web("#f44336")),
-            new Stop(1, Color.web("#c62828"))
+            new Stop(0, Color.web(centre)),
+            new Stop(1, Color.web(bord))
         };
-        RadialGradient gradient = new RadialGradient(0, 0, TAILLE / 2, TAILLE / 2, TAILLE / 2, false, null, stops);
+        RadialGradient gradient = new RadialGradient(0, 0, t / 2, t / 2, t / 2, false, null, stops);
         gc.setFill(gradient);
-        gc.fillRect(0, 0, TAILLE, TAILLE);
+        gc.fillRect(0, 0, t, t);
+    }
+
+    private static Font police(double taillePour64, double t) {
+        return Font.font("Arial", FontWeight.BOLD, taillePour64 * t / TAILLE);
+    }
+
+    private static void dessinerRobot(GraphicsContext gc, double t) {
+        // Fond dégradé bleu
+        dessinerFond(gc, t, "#1976d2", "#1565c0");
+
+        // Dessin robot stylisé (carré + cercle)
+        gc.setFill(Color.web("#90caf9"));
+        gc.fillRect(t * 0.2, t * 0.15, t * 0.6, t * 0.5);
+
+        gc.fillOval(t * 0.25, t * 0.05, t * 0.5, t * 0.4);
+
+        // Lettre R
+        gc.setFill(Color.WHITE);
+        gc.setFont(police(24, t));
+        gc.fillText("R", t * 0.35, t * 0.75);
+    }
+
+    private static void dessinerIntrus(GraphicsContext gc, double t) {
+        // Fond dégradé rouge
+        dessinerFond(gc, t, "#f44336", "#c62828");
 
         // Dessin intrus : cercle tête + corps
         gc.setFill(Color.web("#ffab91"));
-        gc.fillOval(TAILLE * 0.2, TAILLE * 0.05, TAILLE * 0.6, TAILLE * 0.5);
+        gc.fillOval(t * 0.2, t * 0.05, t * 0.6, t * 0.5);
 
-        gc.fillRect(TAILLE * 0.25, TAILLE * 0.4, TAILLE * 0.5, TAILLE * 0.35);
+        gc.fillRect(t * 0.25, t * 0.4, t * 0.5, t * 0.35);
 
         // Lettre I
         gc.setFill(Color.WHITE);
-        gc.setFont(javafx.scene.text.Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 28));
-        gc.fillText("I", TAILLE * 0.38, TAILLE * 0.75);
-
-        return canvas.snapshot(null, null);
+        gc.setFont(police(28, t));
+        gc.fillText("I", t * 0.38, t * 0.75);
     }
 
-    /**
-     * Génère l'image d'un sac d'argent (carré jaune avec $).
-     */
-    public static Image genererImageSac() {
-        Canvas canvas = new Canvas(TAILLE, TAILLE);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-
+    private static void dessinerSac(GraphicsContext gc, double t) {
         // Fond dégradé jaune
-        Stop[] stops = new Stop[]{
-            new Stop(0, Color.web("#ffc107")),
-            new Stop(1, Color.web("#ffa000"))
-        };
-        RadialGradient gradient = new RadialGradient(0, 0, TAILLE / 2, TAILLE / 2, TAILLE / 2, false, null, stops);
-        gc.setFill(gradient);
-        gc.fillRect(0, 0, TAILLE, TAILLE);
+        dessinerFond(gc, t, "#ffc107", "#ffa000");
 
         // Dessin sac : rectangle avec contour
         gc.setStroke(Color.web("#795548"));
-        gc.setLineWidth(3);
-        gc.fillRect(TAILLE * 0.15, TAILLE * 0.2, TAILLE * 0.7, TAILLE * 0.6);
-        gc.strokeRect(TAILLE * 0.15, TAILLE * 0.2, TAILLE * 0.7, TAILLE * 0.6);
+        gc.setLineWidth(3 * t / TAILLE);
+        gc.fillRect(t * 0.15, t * 0.2, t * 0.7, t * 0.6);
+        gc.strokeRect(t * 0.15, t * 0.2, t * 0.7, t * 0.6);
 
         // Symbole $
         gc.setFill(Color.web("#795548"));
-        gc.setFont(javafx.scene.text.Font.font("Arial", javafx.scene.text.FontWeight.BOLD, 36));
-        gc.fillText("$", TAILLE * 0.3, TAILLE * 0.65);
-
-        return canvas.snapshot(null, null);
+        gc.setFont(police(36, t));
+        gc.fillText("$", t * 0.3, t * 0.65);
     }
 
-    /**
-     * Génère l'image d'un obstacle (carré gris foncé).
-     */
-    public static Image genererImageObstacle() {
-        Canvas canvas = new Canvas(TAILLE, TAILLE);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-
+    private static void dessinerObstacle(GraphicsContext gc, double t) {
         // Fond dégradé gris
-        Stop[] stops = new Stop[]{
-            new Stop(0, Color.web("#424242")),
-            new Stop(1, Color.web("#212121"))
-        };
-        RadialGradient gradient = new RadialGradient(0, 0, TAILLE / 2, TAILLE / 2, TAILLE / 2, false, null, stops);
-        gc.setFill(gradient);
-        gc.fillRect(0, 0, TAILLE, TAILLE);
+        dessinerFond(gc, t, "#424242", "#212121");
 
         // Motif croix X
         gc.setStroke(Color.web("#757575"));
-        gc.setLineWidth(2);
-        gc.strokeLine(TAILLE * 0.1, TAILLE * 0.1, TAILLE * 0.9, TAILLE * 0.9);
-        gc.strokeLine(TAILLE * 0.9, TAILLE * 0.1, TAILLE * 0.1, TAILLE * 0.9);
-
-        return canvas.snapshot(null, null);
+        gc.setLineWidth(2 * t / TAILLE);
+        gc.strokeLine(t * 0.1, t * 0.1, t * 0.9, t * 0.9);
+        gc.strokeLine(t * 0.9, t * 0.1, t * 0.1, t * 0.9);
     }
 
-    /**
-     * Génère l'image d'une sortie (vert avec flèche).
-     */
-    public static Image genererImageSortie() {
-        Canvas canvas = new Canvas(TAILLE, TAILLE);
-        GraphicsContext gc = canvas.getGraphicsContext2D();
-
+    private static void dessinerSortie(GraphicsContext gc, double t) {
         // Fond dégradé vert
-        Stop[] stops = new Stop[]{
-            new Stop(0, Color.web("#81c784")),
-            new Stop(1, Color.web("#2e7d32"))
-        };
-        RadialGradient gradient = new RadialGradient(0, 0, TAILLE / 2, TAILLE / 2, TAILLE / 2, false, null, stops);
-        gc.setFill(gradient);
-        gc.fillRect(0, 0, TAILLE, TAILLE);
+        dessinerFond(gc, t, "#81c784", "#2e7d32");
 
         // Flèche diagonale
         gc.setStroke(Color.WHITE);
-        gc.setLineWidth(3);
-        gc.strokeLine(TAILLE * 0.2, TAILLE * 0.8, TAILLE * 0.8, TAILLE * 0.2);
+        gc.setLineWidth(3 * t / TAILLE);
+        gc.strokeLine(t * 0.2, t * 0.8, t * 0.8, t * 0.2);
 
         // Pointe flèche
         gc.fillPolygon(
-            new double[]{TAILLE * 0.8, TAILLE * 0.75, TAILLE * 0.85},
-            new double[]{TAILLE * 0.2, TAILLE * 0.15, TAILLE * 0.25},
+            new double[]{t * 0.8, t * 0.75, t * 0.85},
+            new double[]{t * 0.2, t * 0.15, t * 0.25},
             3
         );
-
-        return canvas.snapshot(null, null);
     }
 }
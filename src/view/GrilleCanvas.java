@@ -0,0 +1,316 @@
+package view;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+import javafx.scene.Node;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.image.Image;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.input.ScrollEvent;
+import javafx.scene.layout.Region;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import model.entites.Entite;
+import model.entites.Intrus;
+import model.entites.Robot;
+import model.entites.SacArgent;
+import model.terrain.Grille;
+import model.terrain.TypeCase;
+import utils.Position;
+
+/**
+ * Affichage de la grille sur un seul Canvas, limité à la partie visible.
+ * Pas de limite de taille : seules les cases dans la fenêtre sont dessinées.
+ *
+ * Navigation : molette pour défiler (Maj = horizontal), Ctrl + molette pour zoomer,
+ * glisser avec le bouton secondaire pour déplacer la vue.
+ */
+public class GrilleCanvas extends Region implements RenduGrille {
+
+    private final Grille grille;
+    private final Canvas canvas;
+
+    // Vue : taille d'une case et décalage (en pixels) du coin haut-gauche
+    private int tailleCellule;
+    private double decalageX;
+    private double decalageY;
+
+    // Glisser-déplacer
+    private double ancienneSourisX;
+    private double ancienneSourisY;
+
+    private Position selection;
+
+    // Callback pour les clics
+    private BiConsumer<Integer, Integer> onCaseCliquee;
+
+    // Constantes de couleurs (mêmes que GrilleGraphique)
+    private static final Color COULEUR_VIDE = Color.web("#e0e0e0");
+    private static final Color COULEUR_FOND = Color.web("#bdbdbd");
+    private static final Color COULEUR_GRILLE = Color.GRAY;
+    private static final Color COULEUR_SELECTION = Color.web("#ffeb3b");
+
+    private static final int TAILLE_CELLULE_MIN = 4;
+    private static final int TAILLE_CELLULE_MAX = 64;
+    private static final int TAILLE_CELLULE_DEFAUT = 24;
+    private static final int TAILLE_MIN_TEXTE = 20;   // en dessous, pas de numéros
+    private static final int TAILLE_MIN_TRAIT = 6;    // en dessous, pas de quadrillage
+
+    private static final Font FONT_NUMERO = Font.font("Arial", FontWeight.BOLD, 10);
+
+    /**
+     * Constructeur.
+     */
+    public GrilleCanvas(Grille grille) {
+        this.grille = grille;
+        this.canvas = new Canvas();
+        this.tailleCellule = TAILLE_CELLULE_DEFAUT;
+        getChildren().add(canvas);
+
+        setStyle("-fx-background-color: #bdbdbd;");
+        setMinSize(0, 0);
+        setPrefSize(800, 600);
+
+        // Le canvas suit la taille du composant
+        widthProperty().addListener((obs, old, val) -> redimensionner());
+        heightProperty().addListener((obs, old, val) -> redimensionner());
+
+        setOnScroll(this::gererDefilement);
+        setOnMousePressed(this::gererPression);
+        setOnMouseDragged(this::gererGlissement);
+        setOnMouseClicked(this::gererClic);
+    }
+
+    @Override
+    protected void layoutChildren() {
+        canvas.relocate(0, 0);
+    }
+
+    private void redimensionner() {
+        canvas.setWidth(getWidth());
+        canvas.setHeight(getHeight());
+        limiterDecalage();
+        rafraichir();
+    }
+
+    // --------------------
+    // Dessin
+    // --------------------
+    /**
+     * Redessine toutes les cases visibles.
+     */
+    @Override
+    public void rafraichir() {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        gc.setFill(COULEUR_FOND);
+        gc.fillRect(0, 0, canvas.getWidth(), canvas.getHeight());
+
+        int premiereLigne = Math.max(0, (int) (decalageY / tailleCellule));
+        int derniereLigne = Math.min(grille.getNbLignes() - 1,
+                (int) ((decalageY + canvas.getHeight()) / tailleCellule));
+        int premiereColonne = Math.max(0, (int) (decalageX / tailleCellule));
+        int derniereColonne = Math.min(grille.getNbColonnes() - 1,
+                (int) ((decalageX + canvas.getWidth()) / tailleCellule));
+
+        Image atlas = GenerateurImages.getAtlas(tailleCellule);
+        for (int i = premiereLigne; i <= derniereLigne; i++) {
+            for (int j = premiereColonne; j <= derniereColonne; j++) {
+                dessinerCase(gc, atlas, i, j);
+            }
+        }
+    }
+
+    /**
+     * Redessine uniquement les cases modifiées qui sont visibles.
+     */
+    @Override
+    public void rafraichir(Collection<Position> casesModifiees) {
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        Image atlas = GenerateurImages.getAtlas(tailleCellule);
+        for (Position pos : casesModifiees) {
+            if (grille.positionValide(pos) && estVisible(pos.getX(), pos.getY())) {
+                dessinerCase(gc, atlas, pos.getX(), pos.getY());
+            }
+        }
+    }
+
+    private boolean estVisible(int x, int y) {
+        double px = y * (double) tailleCellule - decalageX;
+        double py = x * (double) tailleCellule - decalageY;
+        return px + tailleCellule > 0 && px < canvas.getWidth()
+                && py + tailleCellule > 0 && py < canvas.getHeight();
+    }
+
+    /**
+     * Dessine une case : terrain (sprite obstacle/sortie), entité et surbrillance.
+     */
+    private void dessinerCase(GraphicsContext gc, Image atlas, int x, int y) {
+        int t = tailleCellule;
+        double px = y * (double) t - decalageX;
+        double py = x * (double) t - decalageY;
+        int index = grille.index(x, y);
+
+        // Terrain
+        TypeCase type = grille.typeA(index);
+        if (type == TypeCase.OBSTACLE) {
+            dessinerSprite(gc, atlas, GenerateurImages.Sprite.OBSTACLE, px, py, t);
+        } else if (type == TypeCase.SORTIE) {
+            dessinerSprite(gc, atlas, GenerateurImages.Sprite.SORTIE, px, py, t);
+        } else {
+            gc.setFill(COULEUR_VIDE);
+            gc.fillRect(px, py, t, t);
+        }
+
+        // Entité (réduite comme dans GrilleGraphique)
+        Entite entite = grille.entiteA(index);
+        if (entite != null) {
+            double marge = t * 0.1;
+            double taille = t - 2 * marge;
+            GenerateurImages.Sprite sprite = entite instanceof Robot ? GenerateurImages.Sprite.ROBOT
+                    : entite instanceof Intrus ? GenerateurImages.Sprite.INTRUS
+                    : GenerateurImages.Sprite.SAC;
+            gc.drawImage(atlas, sprite.ordinal() * t, 0, t, t, px + marge, py + marge, taille, taille);
+
+            if (t >= TAILLE_MIN_TEXTE && !(entite instanceof SacArgent)) {
+                dessinerNumero(gc, entite, px, py, t);
+            }
+        }
+
+        // Quadrillage et sélection
+        if (selection != null && selection.getX() == x && selection.getY() == y) {
+            gc.setStroke(COULEUR_SELECTION);
+            gc.setLineWidth(Math.max(2, t / 10.0));
+            gc.strokeRect(px + 1, py + 1, t - 2, t - 2);
+        } else if (t >= TAILLE_MIN_TRAIT) {
+            gc.setStroke(COULEUR_GRILLE);
+            gc.setLineWidth(1);
+            gc.strokeRect(px + 0.5, py + 0.5, t - 1, t - 1);
+        }
+    }
+
+    private void dessinerSprite(GraphicsContext gc, Image atlas, GenerateurImages.Sprite sprite,
+                                double px, double py, int t) {
+        gc.drawImage(atlas, sprite.ordinal() * t, 0, t, t, px, py, t, t);
+    }
+
+    private void dessinerNumero(GraphicsContext gc, Entite entite, double px, double py, int t) {
+        String texte;
+        if (entite instanceof Robot) {
+            texte = "R" + ((Robot) entite).getId();
+        } else {
+            Intrus intrus = (Intrus) entite;
+            texte = "I" + intrus.getId();
+            if (!intrus.getSacsPortes().isEmpty()) texte += "$" + intrus.getSacsPortes().size();
+        }
+        gc.setFont(FONT_NUMERO);
+        gc.setLineWidth(2);
+        gc.setStroke(Color.BLACK);
+        gc.strokeText(texte, px + 2, py + t - 3);
+        gc.setFill(Color.WHITE);
+        gc.fillText(texte, px + 2, py + t - 3);
+    }
+
+    // --------------------
+    // Navigation
+    // --------------------
+    private void gererDefilement(ScrollEvent event) {
+        if (event.isControlDown()) {
+            // Zoom autour du pointeur
+            int ancienne = tailleCellule;
+            int nouvelle = event.getDeltaY() > 0 ? ancienne * 2 : ancienne / 2;
+            nouvelle = Math.max(TAILLE_CELLULE_MIN, Math.min(TAILLE_CELLULE_MAX, nouvelle));
+            if (nouvelle == ancienne) return;
+            double ratio = (double) nouvelle / ancienne;
+            decalageX = (decalageX + event.getX()) * ratio - event.getX();
+            decalageY = (decalageY + event.getY()) * ratio - event.getY();
+            tailleCellule = nouvelle;
+        } else if (event.isShiftDown()) {
+            decalageX -= event.getDeltaY() != 0 ? event.getDeltaY() : event.getDeltaX();
+        } else {
+            decalageX -= event.getDeltaX();
+            decalageY -= event.getDeltaY();
+        }
+        limiterDecalage();
+        rafraichir();
+        event.consume();
+    }
+
+    private void gererPression(MouseEvent event) {
+        ancienneSourisX = event.getX();
+        ancienneSourisY = event.getY();
+    }
+
+    private void gererGlissement(MouseEvent event) {
+        if (event.getButton() != MouseButton.SECONDARY) return;
+        decalageX -= event.getX() - ancienneSourisX;
+        decalageY -= event.getY() - ancienneSourisY;
+        ancienneSourisX = event.getX();
+        ancienneSourisY = event.getY();
+        limiterDecalage();
+        rafraichir();
+    }
+
+    private void gererClic(MouseEvent event) {
+        if (event.getButton() != MouseButton.PRIMARY || !event.isStillSincePress()) return;
+        int x = (int) Math.floor((event.getY() + decalageY) / tailleCellule);
+        int y = (int) Math.floor((event.getX() + decalageX) / tailleCellule);
+        if (onCaseCliquee != null && grille.positionValide(grille.position(x, y))) {
+            onCaseCliquee.accept(x, y);
+        }
+    }
+
+    private void limiterDecalage() {
+        double maxX = Math.max(0, grille.getNbColonnes() * (double) tailleCellule - canvas.getWidth());
+        double maxY = Math.max(0, grille.getNbLignes() * (double) tailleCellule - canvas.getHeight());
+        decalageX = Math.max(0, Math.min(maxX, decalageX));
+        decalageY = Math.max(0, Math.min(maxY, decalageY));
+    }
+
+    // --------------------
+    // Sélection
+    // --------------------
+    /**
+     * Met en surbrillance la case sélectionnée.
+     */
+    @Override
+    public void highlightSelection(Position pos) {
+        Position ancienne = selection;
+        selection = pos;
+        GraphicsContext gc = canvas.getGraphicsContext2D();
+        Image atlas = GenerateurImages.getAtlas(tailleCellule);
+        if (ancienne != null && grille.positionValide(ancienne) && estVisible(ancienne.getX(), ancienne.getY())) {
+            dessinerCase(gc, atlas, ancienne.getX(), ancienne.getY());
+        }
+        if (pos != null && grille.positionValide(pos) && estVisible(pos.getX(), pos.getY())) {
+            dessinerCase(gc, atlas, pos.getX(), pos.getY());
+        }
+    }
+
+    /**
+     * Retire la surbrillance.
+     */
+    @Override
+    public void retirerSurbrillance() {
+        highlightSelection(null);
+    }
+
+    /**
+     * Pas de node par entité sur un canvas : aucune animation possible.
+     */
+    @Override
+    public Node getEntiteSelectionnee() {
+        return null;
+    }
+
+    /**
+     * Définit le callback pour les clics sur les cases.
+     */
+    @Override
+    public void setOnCaseCliquee(BiConsumer<Integer, Integer> callback) {
+        this.onCaseCliquee = callback;
+    }
+}
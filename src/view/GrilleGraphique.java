@@ -1,25 +1,25 @@
 package view;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Collection;
 import java.util.function.BiConsumer;
 
+import javafx.geometry.Insets;
 import javafx.geometry.Pos;
 import javafx.scene.Node;
 import javafx.scene.Scene;
+import javafx.scene.image.ImageView;
 import javafx.scene.layout.GridPane;
 import javafx.scene.layout.StackPane;
 import javafx.scene.paint.Color;
-import javafx.scene.shape.Circle;
 import javafx.scene.shape.Rectangle;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
+import javafx.scene.text.TextAlignment;
 import model.entites.Entite;
 import model.entites.Intrus;
 import model.entites.Robot;
 import model.entites.SacArgent;
-import model.terrain.Case;
 import model.terrain.Grille;
 import model.terrain.TypeCase;
 import utils.Position;
@@ -28,15 +28,15 @@ import utils.Position;
  * Composant JavaFX qui affiche la grille de jeu.
  * Gère l'affichage des cases, entités et la sélection.
  */
-public class GrilleGraphique extends GridPane {
+public class GrilleGraphique extends GridPane implements RenduGrille {
 
     private Grille grille;
     private int tailleCellule;
     private double largeurScene;
     private double hauteurScene;
 
-    // Map pour retrouver rapidement les StackPane par position
-    private Map<Position, StackPane> cellules;
+    // Cellules indexées comme la grille (x * nbColonnes + y)
+    private CelluleGraphique[] cellules;
 
     // Entité actuellement sélectionnée
     private Entite entiteSelectionnee;
@@ -59,19 +59,24 @@ public class GrilleGraphique extends GridPane {
     private static final int TAILLE_CELLULE_MAX = 80;
     private static final int MAX_GRILLE = 20;  // Limite max de cases par côté
 
+    // Polices partagées (évite une recherche Font.font par cellule)
+    private static final Font FONT_SORTIE = Font.font("Arial", FontWeight.BOLD, 20);
+    private static final Font FONT_ROBOT = Font.font("Arial", FontWeight.BOLD, 12);
+    private static final Font FONT_INTRUS = Font.font("Arial", FontWeight.BOLD, 11);
+
     /**
      * Constructeur.
      */
     public GrilleGraphique(Grille grille) {
-        this.grille = grille;
-        this.cellules = new HashMap<>();
-        this.entiteSelectionnee = null;
-        
-        // Vérifier limite grille
+        // Vérifier limite grille (avant toute allocation proportionnelle à sa taille)
         if (grille.getNbLignes() > MAX_GRILLE || grille.getNbColonnes() > MAX_GRILLE) {
             throw new IllegalArgumentException("Grille trop grande : max " + MAX_GRILLE + "x" + MAX_GRILLE);
         }
 
+        this.grille = grille;
+        this.cellules = new CelluleGraphique[grille.getNbLignes() * grille.getNbColonnes()];
+        this.entiteSelectionnee = null;
+
         // Calculer la taille optimale des cellules
         calculerTailleCellule();
 
@@ -90,6 +95,14 @@ public class GrilleGraphique extends GridPane {
         setPrefSize(USE_COMPUTED_SIZE, USE_COMPUTED_SIZE);
     }
     
+    /**
+     * Vrai si la grille est assez petite pour une cellule JavaFX par case
+     * (au-delà, utiliser GrilleCanvas).
+     */
+    public static boolean peutAfficher(Grille grille) {
+        return grille.getNbLignes() <= MAX_GRILLE && grille.getNbColonnes() <= MAX_GRILLE;
+    }
+
     /**
      * Configure la grille pour écouter les changements de taille de scène.
      */
@@ -131,62 +144,66 @@ public class GrilleGraphique extends GridPane {
 
     /**
      * Construit visuellement la grille.
+     * Chaque cellule garde ses nodes (fond, entité, sortie) pour toute la partie.
      */
     private void construireGrille() {
         for (int i = 0; i < grille.getNbLignes(); i++) {
             for (int j = 0; j < grille.getNbColonnes(); j++) {
-                Position pos = new Position(i, j);
-                Case caseGrille = grille.getCase(pos);
-
-                StackPane cellule = creerCellule(caseGrille);
-                cellules.put(pos, cellule);
+                CelluleGraphique cellule = new CelluleGraphique();
+                cellules[grille.index(i, j)] = cellule;
+                mettreAJourCellule(i, j);
 
                 // Gérer le clic
                 int x = i, y = j;
-                cellule.setOnMouseClicked(event -> {
+                cellule.pane.setOnMouseClicked(event -> {
                     if (onCaseCliquee != null) {
                         onCaseCliquee.accept(x, y);
                     }
                 });
 
-                add(cellule, j, i);
+                add(cellule.pane, j, i);
             }
         }
     }
 
     /**
-     * Crée une cellule visuelle pour une case.
+     * Nodes persistants d'une cellule ; seuls leurs attributs changent.
      */
-    private StackPane creerCellule(Case caseGrille) {
-        StackPane cellule = new StackPane();
-        cellule.setPrefSize(tailleCellule, tailleCellule);
+    private class CelluleGraphique {
+        final StackPane pane = new StackPane();
+        final Rectangle fond = new Rectangle(tailleCellule, tailleCellule);
+        final StackPane entite = new StackPane();
+        final ImageView image = new ImageView();
+        final Text label = new Text();
+        final Text sortie = new Text("↗");
 
-        // Rectangle de fond
-        Rectangle fond = new Rectangle(tailleCellule, tailleCellule);
-        fond.setStroke(Color.GRAY);
-        fond.setStrokeWidth(1);
+        // Dernier état affiché, pour ne toucher au scene graph que si besoin
+        TypeCase type;
+        String signatureEntite = "";
 
-        // Couleur selon le type
-        Color couleur = getCouleurCase(caseGrille.getType());
-        fond.setFill(couleur);
+        CelluleGraphique() {
+            pane.setPrefSize(tailleCellule, tailleCellule);
 
-        cellule.getChildren().add(fond);
-
-        // Ajouter l'entité si présente
-        if (caseGrille.getEntite() != null) {
-            Node nodeEntite = creerNodeEntite(caseGrille.getEntite());
-            cellule.getChildren().add(nodeEntite);
-        }
+            fond.setStroke(Color.GRAY);
+            fond.setStrokeWidth(1);
 
-        // Ajouter indication de sortie
-        if (caseGrille.estSortie()) {
-            Text texte = new Text("↗");
-            texte.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-            texte.setFill(Color.web("#2e7d32"));
-            cellule.getChildren().add(texte);
+            image.setPreserveRatio(true);
+            label.setFill(Color.WHITE);
+            label.setStroke(Color.BLACK);
+            label.setStrokeWidth(1.5);
+            label.setTextAlignment(TextAlignment.CENTER);
+            StackPane.setAlignment(label, Pos.BOTTOM_RIGHT);
+            StackPane.setMargin(label, new Insets(0, 3, 3, 0));
+            entite.getChildren().addAll(image, label);
+            entite.setVisible(false);
+
+            sortie.setFont(FONT_SORTIE);
+            sortie.setFill(Color.web("#2e7d32"));
+            sortie.setVisible(false);
+
+            // Ordre des enfants : 0 = fond, 1 = entité, 2 = sortie
+            pane.getChildren().addAll(fond, entite, sortie);
         }
-
-        return cellule;
     }
 
     /**
@@ -205,135 +222,109 @@ public class GrilleGraphique extends GridPane {
     }
 
     /**
-     * Crée un node visuel pour une entité.
+     * Met à jour une cellule à partir du modèle (terrain + entité).
+     */
+    private void mettreAJourCellule(int x, int y) {
+        int index = grille.index(x, y);
+        CelluleGraphique cellule = cellules[index];
+
+        // Terrain
+        TypeCase type = grille.typeA(index);
+        cellule.fond.setFill(getCouleurCase(type)); // efface aussi la coloration des cases accessibles
+        if (type != cellule.type) {
+            cellule.type = type;
+            cellule.sortie.setVisible(type == TypeCase.SORTIE);
+        }
+
+        // Entité
+        Entite entite = grille.entiteA(index);
+        String signature = signatureEntite(entite);
+        if (!signature.equals(cellule.signatureEntite)) {
+            cellule.signatureEntite = signature;
+            afficherEntite(cellule, entite);
+        }
+    }
+
+    /**
+     * Résumé de ce qui est dessiné pour une entité (type, numéro, sacs portés).
      */
-    private Node creerNodeEntite(Entite entite) {
+    private String signatureEntite(Entite entite) {
         if (entite instanceof Robot) {
-            return creerNodeRobot((Robot) entite);
+            return "R" + ((Robot) entite).getId();
         } else if (entite instanceof Intrus) {
-            return creerNodeIntrus((Intrus) entite);
+            Intrus intrus = (Intrus) entite;
+            return "I" + intrus.getId() + ":" + intrus.getSacsPortes().size();
         } else if (entite instanceof SacArgent) {
-            return creerNodeSac((SacArgent) entite);
+            return "S";
         }
-        return new Circle(10, Color.BLACK);
+        return entite == null ? "" : "?";
     }
 
     /**
-     * Crée le node pour un robot.
+     * Met à jour les nodes d'entité d'une cellule.
      */
-    private Node creerNodeRobot(Robot robot) {
-        StackPane stack = new StackPane();
-        
-        // Image du robot
-        javafx.scene.image.ImageView imageView = new javafx.scene.image.ImageView(
-            GenerateurImages.genererImageRobot()
-        );
-        imageView.setFitWidth(tailleCellule * 0.8);
-        imageView.setFitHeight(tailleCellule * 0.8);
-        imageView.setPreserveRatio(true);
-        
-        stack.getChildren().add(imageView);
-        
-        // Ajouter le numéro du robot en overlay
-        Text numero = new Text("R" + robot.getId());
-        numero.setFont(Font.font("Arial", FontWeight.BOLD, 12));
-        numero.setFill(Color.WHITE);
-        numero.setStroke(Color.BLACK);
-        numero.setStrokeWidth(1.5);
-        
-        // Positionner en bas à droite
-        StackPane.setAlignment(numero, javafx.geometry.Pos.BOTTOM_RIGHT);
-        StackPane.setMargin(numero, new javafx.geometry.Insets(0, 3, 3, 0));
-        stack.getChildren().add(numero);
-        
-        return stack;
-    }
+    private void afficherEntite(CelluleGraphique cellule, Entite entite) {
+        if (entite == null) {
+            cellule.entite.setVisible(false);
+            cellule.image.setImage(null);
+            return;
+        }
 
-        /**
-         * Crée le node pour un intrus.
-         */
-    private Node creerNodeIntrus(Intrus intrus) {
-        StackPane stack = new StackPane();
-        
-        // Image de l'intrus
-        javafx.scene.image.ImageView imageView = new javafx.scene.image.ImageView(
-            GenerateurImages.genererImageIntrus()
-        );
-        imageView.setFitWidth(tailleCellule * 0.8);
-        imageView.setFitHeight(tailleCellule * 0.8);
-        imageView.setPreserveRatio(true);
-        
-        stack.getChildren().add(imageView);
-        
-        // Texte avec numéro + indicateur de sacs
-        String texte = "I" + intrus.getId();
-        
-        // Si l'intrus porte des sacs, l'indiquer
-        if (!intrus.getSacsPortes().isEmpty()) {
-            texte += "\n💰×" + intrus.getSacsPortes().size();
+        // Sprites tirés de l'atlas partagé, généré une fois à la taille d'affichage
+        int tailleSprite = (int) (tailleCellule * 0.8);
+        double taille = tailleSprite;
+        if (entite instanceof Robot) {
+            // Image du robot + numéro en overlay
+            GenerateurImages.afficher(cellule.image, GenerateurImages.Sprite.ROBOT, tailleSprite);
+            cellule.label.setText("R" + ((Robot) entite).getId());
+            cellule.label.setFont(FONT_ROBOT);
+        } else if (entite instanceof Intrus) {
+            Intrus intrus = (Intrus) entite;
+            GenerateurImages.afficher(cellule.image, GenerateurImages.Sprite.INTRUS, tailleSprite);
+
+            // Texte avec numéro + indicateur de sacs
+            String texte = "I" + intrus.getId();
+            if (!intrus.getSacsPortes().isEmpty()) {
+                texte += "\n💰×" + intrus.getSacsPortes().size();
+            }
+            cellule.label.setText(texte);
+            cellule.label.setFont(FONT_INTRUS);
+        } else if (entite instanceof SacArgent) {
+            GenerateurImages.afficher(cellule.image, GenerateurImages.Sprite.SAC, tailleSprite);
+            cellule.label.setText("");
+            taille = tailleCellule * 0.75;
+        } else {
+            cellule.image.setImage(null);
+            cellule.label.setText("?");
         }
-        
-        Text info = new Text(texte);
-        info.setFont(Font.font("Arial", FontWeight.BOLD, 11));
-        info.setFill(Color.WHITE);
-        info.setStroke(Color.BLACK);
-        info.setStrokeWidth(1.5);
-        info.setTextAlignment(javafx.scene.text.TextAlignment.CENTER);
-        
-        // Positionner en bas à droite
-        StackPane.setAlignment(info, javafx.geometry.Pos.BOTTOM_RIGHT);
-        StackPane.setMargin(info, new javafx.geometry.Insets(0, 3, 3, 0));
-        stack.getChildren().add(info);
-        
-        return stack;
+        cellule.image.setFitWidth(taille);
+        cellule.image.setFitHeight(taille);
+        cellule.entite.setVisible(true);
     }
 
-    /**
-     * Crée le node pour un sac.
-     */
-    private Node creerNodeSac(SacArgent sac) {
-        javafx.scene.image.ImageView imageView = new javafx.scene.image.ImageView(
-            GenerateurImages.genererImageSac()
-        );
-        imageView.setFitWidth(tailleCellule * 0.75);
-        imageView.setFitHeight(tailleCellule * 0.75);
-        imageView.setPreserveRatio(true);
-        return imageView;
-}
-
     /**
      * Rafraîchit l'affichage complet de la grille.
      */
     public void rafraichir() {
         for (int i = 0; i < grille.getNbLignes(); i++) {
             for (int j = 0; j < grille.getNbColonnes(); j++) {
-                Position pos = new Position(i, j);
-                Case caseGrille = grille.getCase(pos);
-                StackPane cellule = cellules.get(pos);
-
-                // Recréer la cellule
-                cellule.getChildren().clear();
-
-                // Rectangle de fond
-                Rectangle fond = new Rectangle(tailleCellule, tailleCellule);
-                fond.setStroke(Color.GRAY);
-                fond.setStrokeWidth(1);
-                fond.setFill(getCouleurCase(caseGrille.getType()));
-                cellule.getChildren().add(fond);
-
-                // Ajouter l'entité si présente
-                if (caseGrille.getEntite() != null) {
-                    Node nodeEntite = creerNodeEntite(caseGrille.getEntite());
-                    cellule.getChildren().add(nodeEntite);
-                }
-
-                // Indication sortie
-                if (caseGrille.estSortie()) {
-                    Text texte = new Text("↗");
-                    texte.setFont(Font.font("Arial", FontWeight.BOLD, 20));
-                    texte.setFill(Color.web("#2e7d32"));
-                    cellule.getChildren().add(texte);
-                }
+                mettreAJourCellule(i, j);
+            }
+        }
+
+        // Réafficher la sélection si nécessaire
+        if (entiteSelectionnee != null) {
+            highlightSelection(entiteSelectionnee.getPosition());
+        }
+    }
+
+    /**
+     * Rafraîchit uniquement les cases modifiées (coût proportionnel au changement).
+     */
+    public void rafraichir(Collection<Position> casesModifiees) {
+        for (Position pos : casesModifiees) {
+            if (grille.positionValide(pos)) {
+                mettreAJourCellule(pos.getX(), pos.getY());
             }
         }
 
@@ -355,7 +346,7 @@ public class GrilleGraphique extends GridPane {
         }
 
         // Ajouter la nouvelle surbrillance
-        StackPane cellule = cellules.get(pos);
+        StackPane cellule = getCellule(pos);
         if (cellule != null) {
             Rectangle fond = (Rectangle) cellule.getChildren().get(0);
             fond.setStroke(COULEUR_SELECTION);
@@ -382,7 +373,7 @@ public class GrilleGraphique extends GridPane {
      */
     public void afficherCasesAccessibles(java.util.List<Position> positions) {
         for (Position pos : positions) {
-            StackPane cellule = cellules.get(pos);
+            StackPane cellule = getCellule(pos);
             if (cellule != null) {
                 Rectangle fond = (Rectangle) cellule.getChildren().get(0);
                 fond.setFill(COULEUR_ACCESSIBLE);
@@ -403,13 +394,22 @@ public class GrilleGraphique extends GridPane {
     public Node getEntiteSelectionnee() {
         if (entiteSelectionnee != null && celluleSelectionnee != null) {
             // Retourner le node de l'entité (2ème enfant de la cellule)
-            if (celluleSelectionnee.getChildren().size() > 1) {
-                return celluleSelectionnee.getChildren().get(1);
+            Node nodeEntite = celluleSelectionnee.getChildren().get(1);
+            if (nodeEntite.isVisible()) {
+                return nodeEntite;
             }
         }
         return null;
     }
 
+    /**
+     * Retourne le StackPane d'une position, ou null hors grille.
+     */
+    private StackPane getCellule(Position pos) {
+        if (pos == null || !grille.positionValide(pos)) return null;
+        return cellules[grille.index(pos)].pane;
+    }
+
     /**
      * Définit le callback pour les clics sur les cases.
      */
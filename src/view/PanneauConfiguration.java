@@ -33,6 +33,10 @@ import utils.Position;
  */
 public class PanneauConfiguration extends VBox {
 
+    // Dimensions maximales (grille entière / placement manuel avec aperçu)
+    private static final int MAX_DIMENSION = 1000;
+    private static final int MAX_DIMENSION_PLACEMENT = 20;
+
     // Configuration en cours
     private Configuration config;
 
@@ -312,8 +316,17 @@ public class PanneauConfiguration extends VBox {
             int n = Integer.parseInt(txtNbLignes.getText());
             int m = Integer.parseInt(txtNbColonnes.getText());
 
-            if (n < 5 || n > 20 || m < 5 || m > 20) {
-                afficherErreur("Les dimensions doivent être entre 5 et 20 !");
+            if (n < 5 || n > MAX_DIMENSION || m < 5 || m > MAX_DIMENSION) {
+                afficherErreur("Les dimensions doivent être entre 5 et " + MAX_DIMENSION + " !");
+                return;
+            }
+
+            // Au-delà de 20x20, pas d'aperçu pour le placement manuel
+            boolean toutAleatoire = chkAleatoireObstacles.isSelected() && chkAleatoireSorties.isSelected() &&
+                    chkAleatoireRobots.isSelected() && chkAleatoireIntrus.isSelected() && chkAleatoireSacs.isSelected();
+            if ((n > MAX_DIMENSION_PLACEMENT || m > MAX_DIMENSION_PLACEMENT) && !toutAleatoire) {
+                afficherErreur("Au-delà de " + MAX_DIMENSION_PLACEMENT + "x" + MAX_DIMENSION_PLACEMENT
+                        + ", tous les éléments doivent être en mode aléatoire !");
                 return;
             }
 
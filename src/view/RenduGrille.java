@@ -0,0 +1,45 @@
+package view;
+
+import java.util.Collection;
+import java.util.function.BiConsumer;
+
+import javafx.scene.Node;
+import utils.Position;
+
+/**
+ * Contrat commun des composants qui affichent la grille de jeu.
+ * Permet à VueJeu de choisir entre GrilleGraphique (une cellule par case)
+ * et GrilleCanvas (dessin virtualisé pour les grandes grilles).
+ */
+public interface RenduGrille {
+
+    /**
+     * Rafraîchit l'affichage complet de la grille.
+     */
+    void rafraichir();
+
+    /**
+     * Rafraîchit uniquement les cases modifiées.
+     */
+    void rafraichir(Collection<Position> casesModifiees);
+
+    /**
+     * Met en surbrillance la case sélectionnée.
+     */
+    void highlightSelection(Position pos);
+
+    /**
+     * Retire la surbrillance.
+     */
+    void retirerSurbrillance();
+
+    /**
+     * Retourne le node de l'entité sélectionnée (pour les animations), ou null.
+     */
+    Node getEntiteSelectionnee();
+
+    /**
+     * Définit le callback pour les clics sur les cases (x = ligne, y = colonne).
+     */
+    void setOnCaseCliquee(BiConsumer<Integer, Integer> callback);
+}
@@ -1,9 +1,15 @@
 package view;
 
+import java.util.Set;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import controller.ControleurJeu;
 import javafx.application.Application;
 import javafx.application.Platform;
 import javafx.geometry.Insets;
+import javafx.scene.Node;
 import javafx.scene.Scene;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
@@ -13,6 +19,7 @@ import javafx.stage.Stage;
 import model.jeu.GestionnaireJeu;
 import observer.ObservateurGrille;
 import utils.Direction;
+import utils.Position;
 
 /**
  * Classe principale de l'interface graphique JavaFX.
@@ -21,12 +28,14 @@ import utils.Direction;
  */
 public class VueJeu extends Application implements ObservateurGrille {
 
+    private static final Logger LOG = LoggerFactory.getLogger(VueJeu.class);
+
     // Composants graphiques
     private Stage stage;
     private Scene scene;
     private BorderPane root;
 
-    private GrilleGraphique grilleGraphique;
+    private RenduGrille grilleGraphique;
     private PanneauInformation panneauInfo;
     private PanneauConfiguration panneauConfig;
     private AnimationHandler animationHandler;
@@ -75,8 +84,8 @@ public class VueJeu extends Application implements ObservateurGrille {
         // Créer le gestionnaire de jeu
         gestionnaire = new GestionnaireJeu(nbLignes, nbColonnes);
 
-        // Appliquer la configuration (obstacles, sacs, sorties, entités)
-        appliquerConfiguration(config);
+        // Appliquer la configuration (obstacles, sacs, sorties, entités) en une transaction
+        gestionnaire.getGrille().batch(() -> appliquerConfiguration(config));
 
         // Créer le contrôleur
         controleur = new ControleurJeu(gestionnaire);
@@ -154,6 +163,11 @@ public class VueJeu extends Application implements ObservateurGrille {
                 generateur.placerSacs();
             }
         }
+
+        // Pour rejouer la même grille (GenerateurGrilleAleatoire avec cette graine)
+        if (gestionnaire.getGraineGeneration() != null) {
+            LOG.info("🎲 Graine de génération : {}", gestionnaire.getGraineGeneration());
+        }
     }
 
     /**
@@ -163,8 +177,18 @@ public class VueJeu extends Application implements ObservateurGrille {
         root = new BorderPane();
         root.setPadding(new Insets(10));
 
-        // Créer les composants
-        grilleGraphique = new GrilleGraphique(gestionnaire.getGrille());
+        // Créer les composants : une cellule par case pour les petites grilles,
+        // un canvas virtualisé au-delà
+        Node centre;
+        if (GrilleGraphique.peutAfficher(gestionnaire.getGrille())) {
+            GrilleGraphique grilleCellules = new GrilleGraphique(gestionnaire.getGrille());
+            grilleGraphique = grilleCellules;
+            centre = grilleCellules;
+        } else {
+            GrilleCanvas grilleCanvas = new GrilleCanvas(gestionnaire.getGrille());
+            grilleGraphique = grilleCanvas;
+            centre = grilleCanvas;
+        }
         panneauInfo = new PanneauInformation(gestionnaire);
         animationHandler = new AnimationHandler();
 
@@ -174,7 +198,7 @@ public class VueJeu extends Application implements ObservateurGrille {
         });
 
         // Placer les composants
-        root.setCenter(grilleGraphique);
+        root.setCenter(centre);
         root.setRight(panneauInfo);
 
         // Créer la scène
@@ -191,7 +215,7 @@ public class VueJeu extends Application implements ObservateurGrille {
      * Gère les touches du clavier (pavé numérique et WASD).
      */
     private void gererToucheClavier(KeyCode code) {
-        Direction direction = Direction.fromKeyCode(code);
+        Direction direction = ClavierDirection.fromKeyCode(code);
 
         if (direction != null) {
             // Le joueur a appuyé sur une touche de direction valide
@@ -216,6 +240,18 @@ public class VueJeu extends Application implements ObservateurGrille {
         });
     }
 
+    /**
+     * Variante transactionnelle : seules les cases modifiées sont redessinées.
+     */
+    @Override
+    public void onGrilleModifiee(Set<Position> casesModifiees) {
+        Platform.runLater(() -> {
+            grilleGraphique.rafraichir(casesModifiees);
+            panneauInfo.mettreAJour();
+            verifierFinPartie();
+        });
+    }
+
     /**
      * Rafraîchit tout l'affichage.
      */